@@ -0,0 +1,172 @@
+package com.johndeere.challenge.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.johndeere.challenge.config.DedupConfig;
+import com.johndeere.challenge.config.MachineConfig;
+import com.johndeere.challenge.config.MachineLookupConfig;
+import com.johndeere.challenge.config.PipelineConfig;
+import com.johndeere.challenge.config.SpoolConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+import com.johndeere.challenge.repository.DocumentMessageStore;
+import com.johndeere.challenge.repository.MessageStore;
+import com.johndeere.challenge.service.MachineLookup;
+import com.johndeere.challenge.service.MessageAggregator;
+import com.johndeere.challenge.service.MachineWhitelist;
+import com.johndeere.challenge.service.MessageChecks;
+import com.johndeere.challenge.service.MessageService;
+import com.johndeere.challenge.service.SessionSequenceIndex;
+import com.johndeere.challenge.spool.MessageSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openapitools.client.api.PetApi;
+import org.openapitools.client.model.Pet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of the individual stages a message goes through between the inbound topic and
+ * the outbound topic. Run with {@code -prof gc} (the profile default) to get allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessagePipelineBenchmark {
+
+    private static final int WHITELISTED_MACHINES = 50_000;
+    private static final int STORED_SEQUENCES = 10_000;
+
+    private ObjectMapper objectMapper;
+    private Message message;
+    private byte[] messageJson;
+
+    private MachineWhitelist machineWhitelist;
+    private MachineLookup machineLookup;
+    private SessionSequenceIndex sequenceIndex;
+    private MessageChecks messageChecks;
+    private MessageService messageService;
+
+    private UUID sessionGuid;
+    private int nextSequenceNumber;
+
+    @Setup
+    public void setUp() throws IOException {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        // Same mapper configuration as Spring Kafka's JsonSerializer/JsonDeserializer
+        objectMapper = JacksonUtils.enhancedObjectMapper();
+        sessionGuid = UUID.randomUUID();
+        message = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(sessionGuid)
+                .sequenceNumber(1)
+                .machineId(WHITELISTED_MACHINES / 2)
+                .data(List.of(
+                        MessageData.builder()
+                                .type(MessageDataType.DISTANCE)
+                                .value(100)
+                                .build(),
+                        MessageData.builder()
+                                .type(MessageDataType.WORKED_SURFACE)
+                                .value(600)
+                                .build()
+                ))
+                .build();
+        messageJson = objectMapper.writeValueAsBytes(message);
+
+        MachineConfig machineConfig = new MachineConfig();
+        machineConfig.setWhitelist(IntStream.rangeClosed(1, WHITELISTED_MACHINES).boxed().toList());
+        machineWhitelist = new MachineWhitelist(machineConfig);
+
+        MessageStore messageStore = new DocumentMessageStore(StubMessageRepository.create());
+        sequenceIndex = new SessionSequenceIndex(messageStore, new DedupConfig());
+        for (int sequenceNumber = 1; sequenceNumber <= STORED_SEQUENCES; sequenceNumber++) {
+            sequenceIndex.add(sessionGuid, sequenceNumber);
+        }
+        nextSequenceNumber = STORED_SEQUENCES + 1;
+
+        machineLookup = new MachineLookup(new StubPetApi(), new MachineLookupConfig());
+        // The aggregator is never flushed here, so it needs no MongoTemplate
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        // A disabled spool never drains, so it needs no RetryRouter
+        SpoolConfig spoolConfig = new SpoolConfig();
+        spoolConfig.setEnabled(false);
+        messageChecks = new MessageChecks(machineWhitelist, machineLookup, sequenceIndex, metrics, new PipelineConfig());
+        messageService = new MessageService(messageStore, messageChecks, sequenceIndex,
+                metrics, new MessageAggregator(null), new MessageSpool(spoolConfig, messageStore, null, metrics));
+    }
+
+    @TearDown
+    public void tearDown() {
+        messageChecks.close();
+        machineLookup.close();
+    }
+
+    @Benchmark
+    public Message deserializeMessage() throws IOException {
+        return objectMapper.readValue(messageJson, Message.class);
+    }
+
+    @Benchmark
+    public byte[] serializeMessage() throws IOException {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public MessageDataType resolveDataType() {
+        return MessageDataType.fromString("workedSurface");
+    }
+
+    @Benchmark
+    public boolean whitelistCheck() {
+        return machineWhitelist.contains(message.machineId());
+    }
+
+    @Benchmark
+    public boolean dedupCheck() {
+        return sequenceIndex.contains(sessionGuid, STORED_SEQUENCES / 2);
+    }
+
+    @Benchmark
+    public boolean consumeMessage() {
+        // A fresh sequence number per call, so every message is authorized, persisted and forwarded
+        return messageService.consumeMessage(Message.builder()
+                .id(message.id())
+                .sessionGuid(sessionGuid)
+                .sequenceNumber(nextSequenceNumber++)
+                .machineId(message.machineId())
+                .data(message.data())
+                .build());
+    }
+
+    private static final class StubPetApi extends PetApi {
+
+        @Override
+        public Pet getPetById(Long petId) {
+            return new Pet().id(petId);
+        }
+    }
+}
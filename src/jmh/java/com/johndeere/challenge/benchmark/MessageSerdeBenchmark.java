@@ -0,0 +1,88 @@
+package com.johndeere.challenge.benchmark;
+
+import com.johndeere.challenge.kafka.serde.MessageDeserializer;
+import com.johndeere.challenge.kafka.serde.MessageSerializer;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the Kafka wire formats of {@link Message}. The encoded size of each
+ * format is logged once per trial.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageSerdeBenchmark {
+
+    private static final String TOPIC = "outbound_message_queue";
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private MessageSerializer serializer;
+    private MessageDeserializer deserializer;
+    private Message message;
+    private RecordHeaders headers;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serializer = new MessageSerializer();
+        serializer.configure(Map.of(MessageSerializer.FORMAT_CONFIG, format), false);
+        deserializer = new MessageDeserializer();
+
+        message = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(UUID.randomUUID())
+                .sequenceNumber(1)
+                .machineId(1)
+                .data(List.of(
+                        MessageData.builder()
+                                .type(MessageDataType.DISTANCE)
+                                .value(100)
+                                .build(),
+                        MessageData.builder()
+                                .type(MessageDataType.WORKED_SURFACE)
+                                .value(600)
+                                .build()
+                ))
+                .build();
+        headers = new RecordHeaders();
+        encoded = serializer.serialize(TOPIC, headers, message);
+
+        log.info("{}: {} bytes per message", format, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), message);
+    }
+
+    @Benchmark
+    public Message decode() {
+        return deserializer.deserialize(TOPIC, headers, encoded);
+    }
+}
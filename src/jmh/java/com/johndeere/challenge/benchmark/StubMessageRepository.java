@@ -0,0 +1,30 @@
+package com.johndeere.challenge.benchmark;
+
+import com.johndeere.challenge.repository.MessageRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * {@link MessageRepository} that accepts every write and knows no stored messages, so the
+ * benchmarks measure the pipeline itself rather than Mongo.
+ */
+final class StubMessageRepository {
+
+    private StubMessageRepository() {
+    }
+
+    static MessageRepository create() {
+        return (MessageRepository) Proxy.newProxyInstance(
+                MessageRepository.class.getClassLoader(),
+                new Class<?>[]{MessageRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "insert", "save", "bulkInsert" -> args[0];
+                    case "findBySessionGuid", "findSequenceNumbersBySessionGuid" -> List.of();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubMessageRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
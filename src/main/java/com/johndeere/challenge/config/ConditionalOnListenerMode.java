@@ -0,0 +1,40 @@
+package com.johndeere.challenge.config;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Map;
+
+/**
+ * Registers the inbound listener of one {@link ListenerConfig.Mode}. The mode is read from
+ * {@code listener} bound to {@link ListenerConfig}, so every spelling that binds to a mode selects
+ * it and the default matches {@link ListenerConfig#getMode()}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Conditional(ConditionalOnListenerMode.OnListenerMode.class)
+public @interface ConditionalOnListenerMode {
+
+    ListenerConfig.Mode value();
+
+    class OnListenerMode implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnListenerMode.class.getName());
+            ListenerConfig listenerConfig = Binder.get(context.getEnvironment())
+                    .bind("listener", ListenerConfig.class)
+                    .orElseGet(ListenerConfig::new);
+            return attributes != null && listenerConfig.getMode() == attributes.get("value");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "dedup")
+public class DedupConfig {
+
+    // Sessions kept in memory before the least recently used one is evicted
+    @Positive
+    private long maximumSessions = 100_000;
+
+    // Idle time after which a session is evicted and reloaded from Mongo on its next message
+    @NotNull
+    private Duration expireAfterAccess = Duration.ofMinutes(30);
+}
@@ -0,0 +1,24 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "id")
+public class IdConfig {
+
+    @NotNull
+    private Strategy strategy = Strategy.UUID_V7;
+
+    public enum Strategy {
+        // Time-ordered UUIDs: new messages land at the right edge of the _id index
+        UUID_V7,
+        // Random UUIDs (version 4)
+        RANDOM,
+    }
+}
@@ -0,0 +1,24 @@
+package com.johndeere.challenge.config;
+
+import com.johndeere.challenge.id.IdGenerator;
+import com.johndeere.challenge.id.RandomIdGenerator;
+import com.johndeere.challenge.id.UuidV7Generator;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@AllArgsConstructor
+public class IdGeneratorConfig {
+
+    private final IdConfig idConfig;
+
+    // Switches on the bound enum, so every spelling that binds to a strategy selects it
+    @Bean
+    public IdGenerator idGenerator() {
+        return switch (idConfig.getStrategy()) {
+            case UUID_V7 -> new UuidV7Generator();
+            case RANDOM -> new RandomIdGenerator();
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ingest")
+public class IngestConfig {
+
+    // Bulk-uploaded records sent to Kafka and still waiting for the broker ack, shared by all requests
+    @Positive
+    private int maxInFlight = 1000;
+
+    // How long a bulk upload waits for an in-flight slot before it is cut short; single messages never wait
+    @NotNull
+    private Duration admissionTimeout = Duration.ofSeconds(5);
+
+    // Fraction of the producer buffer that must be free to admit new messages
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double minBufferAvailable = 0.1;
+
+    // How often the producer buffer usage is sampled
+    @NotNull
+    private Duration bufferSampleInterval = Duration.ofSeconds(1);
+
+    // Sustained messages per second accepted from one machine
+    @Positive
+    private double machineRate = 100;
+
+    // Messages one machine can send at once before machineRate applies
+    @Positive
+    private int machineBurst = 1000;
+
+    // Sent as Retry-After when a message is refused
+    @NotNull
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
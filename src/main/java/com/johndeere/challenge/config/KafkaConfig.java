@@ -1,37 +1,156 @@
 package com.johndeere.challenge.config;
 
-import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.common.serialization.StringDeserializer;
+import com.johndeere.challenge.model.Message;
+import lombok.AllArgsConstructor;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @EnableKafka
 @Configuration
+@AllArgsConstructor
 public class KafkaConfig {
 
+    private final KafkaProperties kafkaProperties;
+    private final ListenerConfig listenerConfig;
+    private final TopicConfig topicConfig;
+    private final OutboundProducerConfig outboundProducerConfig;
+    private final RetryConfig retryConfig;
+    private final ObjectProvider<DefaultKafkaConsumerFactoryCustomizer> consumerFactoryCustomizers;
+    private final ObjectProvider<DefaultKafkaProducerFactoryCustomizer> producerFactoryCustomizers;
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
-        Map<String, Object> config = new HashMap<>();
+    public NewTopic inboundMessageQueue() {
+        return TopicBuilder.name("inbound_message_queue")
+                .partitions(topicConfig.getPartitions())
+                .build();
+    }
 
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "kafka:29092");
-        config.put(ConsumerConfig.GROUP_ID_CONFIG, "johndeere");
-        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    @Bean
+    public NewTopic outboundMessageQueue() {
+        return TopicBuilder.name("outbound_message_queue")
+                .partitions(topicConfig.getPartitions())
+                .build();
+    }
 
-        return new DefaultKafkaConsumerFactory<>(config);
+    @Bean
+    public KafkaAdmin.NewTopics retryTopics() {
+        return new KafkaAdmin.NewTopics(Stream.concat(retryConfig.retryTopics().stream(), Stream.of(retryConfig.deadLetterTopic()))
+                .map(name -> TopicBuilder.name(name)
+                        .partitions(topicConfig.getPartitions())
+                        .build())
+                .toArray(NewTopic[]::new));
+    }
+
+    @Bean
+    public ConsumerFactory<String, Message> consumerFactory() {
+        DefaultKafkaConsumerFactory<String, Message> factory =
+                new DefaultKafkaConsumerFactory<>(kafkaProperties.buildConsumerProperties(null));
+        // Applies Boot's customizers, e.g. the Micrometer listener that publishes consumer lag
+        consumerFactoryCustomizers.orderedStream().forEach(customizer -> customizer.customize(factory));
+        return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory concurrentKafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, Message> concurrentKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Message> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(listenerConfig.isBatchListener());
+        factory.setConcurrency(listenerConfig.getConcurrency());
+        joinOutboundTransactions(factory);
+        return factory;
+    }
+
+    /**
+     * Record listeners for the retry tiers. Acks are manual so a record that is not due yet can be
+     * nacked and redelivered after its delay.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Message> retryListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Message> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(listenerConfig.getConcurrency());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // Retried messages are forwarded too, which a transactional outbound producer only allows in a transaction
+        joinOutboundTransactions(factory);
+        return factory;
+    }
+
+    private void joinOutboundTransactions(ConcurrentKafkaListenerContainerFactory<String, Message> factory) {
+        if (outboundProducerConfig.isTransactional()) {
+            // Forwards made on the listener thread join the container's transaction, which also commits the offsets
+            factory.getContainerProperties().setKafkaAwareTransactionManager(
+                    new KafkaTransactionManager<>(outboundProducerFactory()));
+        }
+    }
+
+    /**
+     * Producer for the REST endpoints and startup messages, configured by {@code spring.kafka.producer} only.
+     */
+    @Bean
+    @Primary
+    public ProducerFactory<String, Message> producerFactory() {
+        return customize(new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(null)));
+    }
+
+    @Bean
+    @Primary
+    public KafkaTemplate<String, Message> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    /**
+     * Producer for forwarding to {@code outbound_message_queue}: batched, compressed and idempotent,
+     * so retries can neither duplicate nor reorder records within a partition.
+     */
+    @Bean
+    public ProducerFactory<String, Message> outboundProducerFactory() {
+        DefaultKafkaProducerFactory<String, Message> factory = new DefaultKafkaProducerFactory<>(outboundProducerProperties());
+        if (outboundProducerConfig.isTransactional()) {
+            factory.setTransactionIdPrefix(outboundProducerConfig.getTransactionIdPrefix());
+        }
+        return customize(factory);
+    }
+
+    Map<String, Object> outboundProducerProperties() {
+        Map<String, Object> properties = kafkaProperties.buildProducerProperties(null);
+        properties.put(ProducerConfig.LINGER_MS_CONFIG, outboundProducerConfig.getLinger().toMillis());
+        properties.put(ProducerConfig.BATCH_SIZE_CONFIG, outboundProducerConfig.getBatchSize());
+        properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, outboundProducerConfig.getCompressionType());
+        properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        properties.put(ProducerConfig.ACKS_CONFIG, "all");
+        properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        return properties;
+    }
+
+    @Bean
+    public KafkaTemplate<String, Message> outboundKafkaTemplate() {
+        return new KafkaTemplate<>(outboundProducerFactory());
+    }
+
+    private DefaultKafkaProducerFactory<String, Message> customize(DefaultKafkaProducerFactory<String, Message> factory) {
+        // Applies Boot's customizers, e.g. the Micrometer listener that publishes producer metrics
+        producerFactoryCustomizers.orderedStream().forEach(customizer -> customizer.customize(factory));
         return factory;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "listener")
+public class ListenerConfig {
+
+    static final String REACTIVE_CONSUMER = "com.johndeere.challenge.kafka.ReactiveKafkaConsumer";
+
+    private Mode mode = Mode.RECORD;
+
+    // Listener threads per container; each partition, and so each session, is owned by one thread
+    @Positive
+    private int concurrency = 1;
+
+    public enum Mode {
+        // One record per listener invocation, each waiting for its forward to be acknowledged; use BATCH for throughput
+        RECORD,
+        // A whole poll per listener invocation, persisted with a single bulk insert
+        BATCH,
+        // A whole poll per listener invocation, processed on virtual threads with one lane per session
+        VIRTUAL,
+        // Polls consumed with reactor-kafka; needs the reactive build (mvn -Preactive)
+        REACTIVE,
+    }
+
+    public boolean isBatchListener() {
+        return mode != Mode.RECORD;
+    }
+
+    // Fails startup instead of leaving inbound_message_queue without a consumer
+    @AssertTrue(message = "listener.mode=reactive needs the reactive build (mvn -Preactive)")
+    public boolean isModeAvailable() {
+        return mode != Mode.REACTIVE || ClassUtils.isPresent(REACTIVE_CONSUMER, ListenerConfig.class.getClassLoader());
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.nio.file.Path;
 import java.util.List;
 
 @Data
@@ -16,4 +17,8 @@ public class MachineConfig {
 
     @NotEmpty
     private List<Integer> whitelist;
-}
\ No newline at end of file
+
+    // Optional file with one machineId per line; when set it overrides the whitelist above
+    // and is reloaded whenever it changes
+    private Path whitelistFile;
+}
@@ -0,0 +1,32 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "machine.lookup")
+public class MachineLookupConfig {
+
+    @Positive
+    private long maximumSize = 10_000;
+
+    // How long a known machine is trusted before it must be fetched again
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // Entries older than this are reloaded in the background on their next read
+    @NotNull
+    private Duration refreshAfter = Duration.ofMinutes(5);
+
+    // How long an unknown machine (404 from the lookup service) is remembered
+    @NotNull
+    private Duration negativeTtl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,30 @@
+package com.johndeere.challenge.config;
+
+import com.johndeere.challenge.repository.DocumentMessageStore;
+import com.johndeere.challenge.repository.MessageRepository;
+import com.johndeere.challenge.repository.MessageStore;
+import com.johndeere.challenge.repository.TimeSeriesMessageRepository;
+import com.johndeere.challenge.repository.TimeSeriesMessageStore;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@Configuration
+@AllArgsConstructor
+public class MessageStoreConfig {
+
+    private final StorageConfig storageConfig;
+
+    // Switches on the bound enum, so every spelling that binds to a mode selects it
+    @Bean
+    public MessageStore messageStore(ObjectProvider<MessageRepository> messageRepository,
+                                     ObjectProvider<MongoTemplate> mongoTemplate,
+                                     ObjectProvider<TimeSeriesMessageRepository> timeSeriesRepository) {
+        return switch (storageConfig.getMode()) {
+            case DOCUMENT -> new DocumentMessageStore(messageRepository.getObject());
+            case TIME_SERIES -> new TimeSeriesMessageStore(mongoTemplate.getObject(), timeSeriesRepository.getObject());
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.johndeere.challenge.config;
+
+import com.johndeere.challenge.repository.MessageDataReadingConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+@Configuration
+public class MongoConversionConfig {
+
+    // Replaces Spring Boot's default conversions, which have no custom converters
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new MessageDataReadingConverter()));
+    }
+}
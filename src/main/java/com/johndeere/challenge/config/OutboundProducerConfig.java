@@ -0,0 +1,49 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Producer settings for forwarding to {@code outbound_message_queue}, applied on top of
+ * {@code spring.kafka.producer}.
+ */
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "outbound")
+public class OutboundProducerConfig {
+
+    // How long the producer waits for more records to fill a batch
+    @NotNull
+    private Duration linger = Duration.ofMillis(20);
+
+    // Upper bound of one partition batch, in bytes
+    @Positive
+    private int batchSize = 64 * 1024;
+
+    @Pattern(regexp = "none|gzip|snappy|lz4|zstd")
+    private String compressionType = "lz4";
+
+    // Send and commit inbound offsets in one Kafka transaction per poll or record
+    private boolean transactional = false;
+
+    // Must be unique per application instance when transactional
+    @NotBlank
+    private String transactionIdPrefix = "challenge-outbound-";
+
+    // Forwards sent but not yet acknowledged, across all listener threads; listeners wait beyond that
+    @Positive
+    private int maxInFlight = 10_000;
+
+    // Longest wait for the acknowledgements of a listener's forwards before they count as failed
+    @NotNull
+    private Duration ackTimeout = Duration.ofSeconds(30);
+}
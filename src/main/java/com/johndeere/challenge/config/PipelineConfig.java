@@ -0,0 +1,46 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "pipeline")
+public class PipelineConfig {
+
+    // Order in which checks answerable from memory are evaluated; the first rejection skips the rest
+    @NotEmpty
+    private List<Check> order = List.of(Check.WHITELIST, Check.DEDUP, Check.LOOKUP);
+
+    // Longest wait for the machine lookup service before the message is retried
+    @NotNull
+    private Duration lookupTimeout = Duration.ofSeconds(2);
+
+    // Longest wait for loading a session's sequence numbers from Mongo before the message is retried
+    @NotNull
+    private Duration dedupTimeout = Duration.ofSeconds(2);
+
+    public enum Check {
+        // Machine is on the whitelist; always answered from memory
+        WHITELIST,
+        // Sequence number not yet persisted for the session; needs Mongo if the session is not cached
+        DEDUP,
+        // Machine known to the lookup service; needs a remote call if the machine is not cached
+        LOOKUP,
+    }
+
+    @AssertTrue(message = "pipeline.order must list every check")
+    public boolean isOrderComplete() {
+        return order != null && !order.isEmpty() && EnumSet.copyOf(order).size() == Check.values().length;
+    }
+}
@@ -0,0 +1,53 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "retry")
+public class RetryConfig {
+
+    public static final String SOURCE_TOPIC = "inbound_message_queue";
+
+    // Retry tiers a transiently failing message goes through before the dead-letter topic
+    @Positive
+    private int attempts = 3;
+
+    // Delay of the first tier; each further tier waits multiplier times longer, up to maxDelay
+    @NotNull
+    private Duration initialDelay = Duration.ofSeconds(1);
+
+    @DecimalMin("1.0")
+    private double multiplier = 5.0;
+
+    @NotNull
+    private Duration maxDelay = Duration.ofMinutes(5);
+
+    public String retryTopic(int tier) {
+        return SOURCE_TOPIC + "-retry-" + tier;
+    }
+
+    public List<String> retryTopics() {
+        return IntStream.range(0, attempts).mapToObj(this::retryTopic).toList();
+    }
+
+    public String deadLetterTopic() {
+        return SOURCE_TOPIC + "-dlt";
+    }
+
+    public Duration delay(int tier) {
+        double millis = initialDelay.toMillis() * Math.pow(multiplier, tier);
+        return millis >= maxDelay.toMillis() ? maxDelay : Duration.ofMillis((long) millis);
+    }
+}
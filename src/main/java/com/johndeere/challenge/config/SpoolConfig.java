@@ -0,0 +1,44 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "spool")
+public class SpoolConfig {
+
+    // Absorb writes in a local segment log while Mongo is unavailable, instead of failing them
+    private boolean enabled = true;
+
+    @NotNull
+    private Path directory = Path.of("spool");
+
+    // Size of each memory-mapped segment file; a single message must fit into one segment
+    @NotNull
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    // Segments kept on disk before the spool refuses writes, bounding it to segmentSize * maxSegments
+    @Positive
+    private int maxSegments = 16;
+
+    // Force every write to the storage device; otherwise spooled messages survive a process crash but not an OS crash
+    private boolean syncWrites = false;
+
+    // Messages moved back to Mongo per bulk insert
+    @Positive
+    private int drainBatchSize = 500;
+
+    // How often a non-empty spool tries to drain back to Mongo
+    @NotNull
+    private Duration drainInterval = Duration.ofSeconds(1);
+}
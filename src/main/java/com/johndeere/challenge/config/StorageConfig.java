@@ -0,0 +1,42 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "storage")
+public class StorageConfig {
+
+    @NotNull
+    private Mode mode = Mode.DOCUMENT;
+
+    public enum Mode {
+        // One document per message in the message collection, deduplicated by a unique index
+        DOCUMENT,
+        // A compressed time-series collection bucketed by machine and session, for long histories
+        TIME_SERIES,
+    }
+
+    /**
+     * Matches when {@code storage.mode} binds to {@link Mode#TIME_SERIES}, in any spelling the
+     * properties binder accepts.
+     */
+    public static class TimeSeriesMode implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return Binder.get(context.getEnvironment())
+                    .bind("storage.mode", Mode.class)
+                    .orElse(Mode.DOCUMENT) == Mode.TIME_SERIES;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.johndeere.challenge.config;
+
+import com.johndeere.challenge.kafka.MessageKeyStrategy;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "topics")
+public class TopicConfig {
+
+    // Partitions of the inbound and outbound topics; upper bound for useful listener concurrency
+    @Positive
+    private int partitions = 6;
+
+    @NotNull
+    private MessageKeyStrategy keyStrategy = MessageKeyStrategy.SESSION;
+
+    // Per-topic overrides of keyStrategy
+    private Map<String, MessageKeyStrategy> keyStrategies = new HashMap<>();
+
+    public MessageKeyStrategy keyStrategyFor(String topic) {
+        return keyStrategies.getOrDefault(topic, keyStrategy);
+    }
+}
@@ -0,0 +1,23 @@
+package com.johndeere.challenge.controller;
+
+import com.johndeere.challenge.kafka.DeadLetterReplayer;
+import com.johndeere.challenge.model.dto.ReplayResultDto;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@Validated
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/dead-letters")
+public class DeadLetterController {
+
+    private final DeadLetterReplayer deadLetterReplayer;
+
+    @PostMapping("/replay")
+    public ResponseEntity<ReplayResultDto> replay(@RequestParam(defaultValue = "100") @Positive int limit) {
+        return ResponseEntity.ok(new ReplayResultDto(deadLetterReplayer.replay(limit)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.johndeere.challenge.controller;
+
+import com.johndeere.challenge.config.StorageConfig;
+import com.johndeere.challenge.model.dto.MachineMessageCursor;
+import com.johndeere.challenge.model.dto.MachineMessagePageDto;
+import com.johndeere.challenge.repository.MachineMessageStore;
+import com.johndeere.challenge.repository.MessageStore;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+/**
+ * Time range queries, which only the time-series store can answer.
+ */
+@Validated
+@RestController
+@Conditional(StorageConfig.TimeSeriesMode.class)
+@RequestMapping("/api/machines")
+public class MachineMessageController {
+
+    private final MachineMessageStore machineMessageStore;
+
+    // Only registered in time-series mode, whose store is a MachineMessageStore
+    public MachineMessageController(MessageStore messageStore) {
+        this.machineMessageStore = (MachineMessageStore) messageStore;
+    }
+
+    @GetMapping("/{machineId}/messages")
+    public ResponseEntity<MachineMessagePageDto> getMessages(@PathVariable int machineId,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                             @RequestParam(required = false) MachineMessageCursor after,
+                                                             @RequestParam(defaultValue = "100") @Positive @Max(1000) int limit) {
+        return ResponseEntity.ok(machineMessageStore.findPageByMachineId(machineId, from, to, after, limit));
+    }
+}
@@ -1,33 +1,57 @@
 package com.johndeere.challenge.controller;
 
+import com.johndeere.challenge.id.IdGenerator;
 import com.johndeere.challenge.kafka.KafkaProducer;
 import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.IngestResultDto;
 import com.johndeere.challenge.model.dto.MessageDto;
+import com.johndeere.challenge.service.IngestAdmission;
+import com.johndeere.challenge.service.MessageIngestService;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.UUID;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AllArgsConstructor
 @RequestMapping("/api/messages")
 public class MessageController {
 
     private final KafkaProducer kafkaProducer;
-
+    private final MessageIngestService messageIngestService;
+    private final IngestAdmission admission;
+    private final IdGenerator idGenerator;
 
     @PostMapping
     public ResponseEntity<Message> sendMessage(@RequestBody MessageDto messageDto,
                                                @RequestParam String topic) {
         Message message = Message.builder()
-                .id(UUID.randomUUID())
+                .id(idGenerator.next())
                 .sessionGuid(messageDto.sessionGuid())
                 .sequenceNumber(messageDto.sequenceNumber())
                 .machineId(messageDto.machineId())
                 .data(messageDto.data())
                 .build();
-        kafkaProducer.sendToKafka(message, topic);
+
+        admission.admit(message.machineId());
+        try {
+            kafkaProducer.sendToKafka(message, topic).whenComplete((result, ex) -> admission.release());
+        } catch (RuntimeException e) {
+            admission.release();
+            throw e;
+        }
         return ResponseEntity.ok(message);
     }
-}
\ No newline at end of file
+
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<IngestResultDto>> sendMessages(InputStream body,
+                                                              @RequestParam String topic) throws IOException {
+        return ResponseEntity.ok(messageIngestService.ingest(body, topic));
+    }
+}
@@ -0,0 +1,67 @@
+package com.johndeere.challenge.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.MessagePageDto;
+import com.johndeere.challenge.service.MessageService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Validated
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/sessions")
+public class SessionMessageController {
+
+    private final MessageService messageService;
+    private final ObjectWriter ndjsonWriter;
+
+    public SessionMessageController(MessageService messageService, ObjectMapper objectMapper) {
+        this.messageService = messageService;
+        // Let the response buffer decide when to send a chunk instead of flushing every line
+        this.ndjsonWriter = objectMapper.writerFor(Message.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+    }
+
+    @GetMapping(path = "/{sessionGuid}/messages", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MessagePageDto> getMessages(@PathVariable UUID sessionGuid,
+                                                      @RequestParam(defaultValue = "0") @PositiveOrZero int after,
+                                                      @RequestParam(defaultValue = "100") @Positive @Max(1000) int limit) {
+        return ResponseEntity.ok(messageService.getMessagesPage(sessionGuid, after, limit));
+    }
+
+    /**
+     * Streams the whole session as newline-delimited JSON, reading from a database cursor while
+     * writing, so memory use does not grow with the session.
+     */
+    @GetMapping(path = "/{sessionGuid}/messages", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMessages(@PathVariable UUID sessionGuid) {
+        StreamingResponseBody body = out -> {
+            try (Stream<Message> messages = messageService.streamMessages(sessionGuid);
+                 SequenceWriter writer = ndjsonWriter.writeValues(out)) {
+                Iterator<Message> iterator = messages.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
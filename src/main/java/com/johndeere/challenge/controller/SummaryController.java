@@ -0,0 +1,29 @@
+package com.johndeere.challenge.controller;
+
+import com.johndeere.challenge.model.MessageSummary;
+import com.johndeere.challenge.model.SummaryScope;
+import com.johndeere.challenge.repository.MessageSummaryRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/summaries")
+public class SummaryController {
+
+    private final MessageSummaryRepository summaryRepository;
+
+
+    @GetMapping("/sessions/{sessionGuid}")
+    public ResponseEntity<MessageSummary> getSessionSummary(@PathVariable UUID sessionGuid) {
+        return ResponseEntity.of(summaryRepository.findById(SummaryScope.SESSION.summaryId(sessionGuid)));
+    }
+
+    @GetMapping("/machines/{machineId}")
+    public ResponseEntity<MessageSummary> getMachineSummary(@PathVariable int machineId) {
+        return ResponseEntity.of(summaryRepository.findById(SummaryScope.MACHINE.summaryId(machineId)));
+    }
+}
@@ -0,0 +1,11 @@
+package com.johndeere.challenge.id;
+
+import java.util.UUID;
+
+/**
+ * Assigns the id of new messages, selected by {@code id.strategy}.
+ */
+public interface IdGenerator {
+
+    UUID next();
+}
@@ -0,0 +1,11 @@
+package com.johndeere.challenge.id;
+
+import java.util.UUID;
+
+public class RandomIdGenerator implements IdGenerator {
+
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,45 @@
+package com.johndeere.challenge.id;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version 7 UUIDs (RFC 9562): a 48-bit millisecond timestamp, a 12-bit counter and 62 random bits.
+ * <p>
+ * Ids from one generator are strictly increasing: the counter orders ids created within the same
+ * millisecond, and when it overflows, or the clock goes backwards, the timestamp is carried
+ * forward instead of repeating. With the standard UUID representation in Mongo, ids compare in
+ * creation order, so inserts append to the {@code _id} index and the id doubles as an ingest-time
+ * sort key.
+ */
+public class UuidV7Generator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+
+    // Last issued timestamp and counter, as (millis << COUNTER_BITS) | counter
+    private final AtomicLong last = new AtomicLong();
+
+    @Override
+    public UUID next() {
+        long start = System.currentTimeMillis() << COUNTER_BITS;
+        long issued = last.updateAndGet(previous -> Math.max(start, previous + 1));
+
+        long timestamp = issued >>> COUNTER_BITS;
+        long counter = issued & ((1 << COUNTER_BITS) - 1);
+        long mostSigBits = timestamp << 16 | 0x7000L | counter;
+        long leastSigBits = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * @return the creation time encoded in a version 7 UUID
+     */
+    public static Instant timestampOf(UUID id) {
+        if (id.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + id);
+        }
+        return Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16);
+    }
+}
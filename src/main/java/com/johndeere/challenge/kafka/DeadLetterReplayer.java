@@ -0,0 +1,104 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.RetryConfig;
+import com.johndeere.challenge.config.TopicConfig;
+import com.johndeere.challenge.model.Message;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Re-injects dead-lettered messages into {@code inbound_message_queue}, e.g. once the failure
+ * that sent them there has been fixed; messages that were persisted but could not be forwarded go
+ * to the first retry tier, to be forwarded only. Replayed records start over with no retries made; the
+ * replay position is kept as the offsets of a dedicated consumer group, so every record is
+ * replayed once.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class DeadLetterReplayer {
+
+    private static final String GROUP_ID = "johndeere-dlt-replay";
+
+    private final ConsumerFactory<String, Message> consumerFactory;
+    private final KafkaTemplate<String, Message> kafkaTemplate;
+    private final RetryConfig retryConfig;
+    private final TopicConfig topicConfig;
+
+    /**
+     * @return the number of messages re-injected, at most {@code limit}
+     */
+    public synchronized int replay(int limit) {
+        Properties overrides = new Properties();
+        overrides.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        overrides.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(limit));
+
+        String topic = retryConfig.deadLetterTopic();
+        Map<TopicPartition, OffsetAndMetadata> replayedOffsets = new HashMap<>();
+        List<CompletableFuture<?>> sends = new ArrayList<>();
+
+        try (Consumer<String, Message> consumer = consumerFactory.createConsumer(GROUP_ID, "dlt-replay", null, overrides)) {
+            consumer.assign(consumer.partitionsFor(topic).stream()
+                    .map(partition -> new TopicPartition(topic, partition.partition()))
+                    .toList());
+
+            polling:
+            while (sends.size() < limit) {
+                var records = consumer.poll(Duration.ofSeconds(2));
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, Message> record : records) {
+                    if (sends.size() == limit) {
+                        break polling;
+                    }
+                    if (record.value() != null) {
+                        sends.add(kafkaTemplate.send(replayRecord(record)));
+                    }
+                    replayedOffsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            // Only move the replay position once every re-injected message is on the broker
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            if (!replayedOffsets.isEmpty()) {
+                consumer.commitSync(replayedOffsets);
+            }
+        }
+
+        log.info("Replayed {} messages from {}", sends.size(), topic);
+        return sends.size();
+    }
+
+    private ProducerRecord<String, Message> replayRecord(ConsumerRecord<String, Message> deadLetter) {
+        String key = topicConfig.keyStrategyFor(RetryConfig.SOURCE_TOPIC).keyOf(deadLetter.value());
+        if (!RetryRouter.isForwardOnly(deadLetter.headers())) {
+            return new ProducerRecord<>(RetryConfig.SOURCE_TOPIC, key, deadLetter.value());
+        }
+
+        // Already persisted, so the inbound topic would drop it as a duplicate; the first retry tier forwards it at once
+        ProducerRecord<String, Message> record = new ProducerRecord<>(retryConfig.retryTopic(0), key, deadLetter.value());
+        record.headers().add(RetryRouter.STAGE_HEADER, RetryRouter.FORWARD_STAGE.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
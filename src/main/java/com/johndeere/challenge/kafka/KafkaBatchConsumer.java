@@ -0,0 +1,65 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.ConditionalOnListenerMode;
+import com.johndeere.challenge.config.ListenerConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.metrics.PipelineMetrics.Outcome;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.MessageService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnListenerMode(ListenerConfig.Mode.BATCH)
+public class KafkaBatchConsumer {
+
+    private final MessageService service;
+    private final OutboundForwarder forwarder;
+    private final RetryRouter retryRouter;
+    private final PipelineMetrics metrics;
+
+    @KafkaListener(topics = "inbound_message_queue", groupId = "johndeere",
+            containerFactory = "concurrentKafkaListenerContainerFactory")
+    public void consume(List<Message> messages) {
+        log.debug("Batch received: size={}", messages.size());
+
+        Set<Message> retried = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<CompletableFuture<?>> routed = new ArrayList<>();
+        List<Message> forward;
+        try {
+            forward = service.consumeMessages(messages, (message, e) -> {
+                retried.add(message);
+                routed.add(retryRouter.route(message, 0, e));
+            });
+        } catch (Exception e) {
+            log.error("Error processing batch of {} messages: {}", messages.size(), e.getMessage(), e);
+            metrics.outcome(Outcome.ERROR, "batch", messages.size());
+            for (Message message : messages) {
+                if (message != null && !retried.contains(message)) {
+                    routed.add(retryRouter.route(message, 0, e));
+                }
+            }
+            awaitRouted(routed);
+            return;
+        }
+
+        forwarder.deliver(forward, 0, "authorized");
+        awaitRouted(routed);
+    }
+
+    // The container commits the poll's offsets when the listener returns, so routed messages must be on the broker first
+    private static void awaitRouted(List<CompletableFuture<?>> routed) {
+        CompletableFuture.allOf(routed.toArray(CompletableFuture[]::new)).join();
+    }
+}
@@ -1,5 +1,7 @@
 package com.johndeere.challenge.kafka;
 
+import com.johndeere.challenge.config.ConditionalOnListenerMode;
+import com.johndeere.challenge.config.ListenerConfig;
 import com.johndeere.challenge.model.Message;
 import com.johndeere.challenge.service.MessageService;
 import lombok.AllArgsConstructor;
@@ -7,15 +9,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
 @AllArgsConstructor
+@ConditionalOnListenerMode(ListenerConfig.Mode.RECORD)
 public class KafkaConsumer {
 
     private final MessageService service;
-    private final KafkaProducer producer;
+    private final OutboundForwarder forwarder;
+    private final RetryRouter retryRouter;
 
-    @KafkaListener(topics = "inbound_message_queue", groupId = "johndeere")
+    @KafkaListener(topics = "inbound_message_queue", groupId = "johndeere",
+            containerFactory = "concurrentKafkaListenerContainerFactory")
     public void consume(Message message) {
         if (message == null) {
             log.warn("Received null message, skipping processing");
@@ -25,17 +32,20 @@ public class KafkaConsumer {
         log.debug("Message received: sessionGuid={}, machineId={}",
                 message.sessionGuid(), message.machineId());
 
+        boolean forward;
         try {
-            boolean forward = service.consumeMessage(message);
-
-            if (forward) {
-                producer.sendToKafka(message, "outbound_message_queue");
-                log.debug("Message forwarded to outbound queue: sessionGuid={}",
-                        message.sessionGuid());
-            }
+            forward = service.consumeMessage(message);
         } catch (Exception e) {
             log.error("Error processing message with sessionGuid={}: {}",
                     message.sessionGuid(), e.getMessage(), e);
+            // Waits for the broker so the offset is only committed once the message is safe in a retry tier or the DLT
+            retryRouter.route(message, 0, e).join();
+            return;
+        }
+
+        if (forward) {
+            // A micro-batch of one: batch listeners forward a whole poll per acknowledgement round trip
+            forwarder.deliver(List.of(message), 0, "authorized");
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.johndeere.challenge.kafka;
 
+import com.johndeere.challenge.config.TopicConfig;
+import com.johndeere.challenge.id.IdGenerator;
+import com.johndeere.challenge.metrics.PipelineMetrics;
 import com.johndeere.challenge.model.Message;
 import com.johndeere.challenge.model.MessageData;
 import com.johndeere.challenge.model.MessageDataType;
@@ -22,44 +25,43 @@ import java.util.concurrent.CompletableFuture;
 public class    KafkaProducer {
 
     private final KafkaTemplate<String, Message> kafkaTemplate;
+    private final TopicConfig topicConfig;
+    private final PipelineMetrics metrics;
+    private final IdGenerator idGenerator;
 
     @PostConstruct
     public void init() {
         log.info("KafkaProducer initialized");
         sendToKafka(Message.builder()
-                .id(UUID.randomUUID())
+                .id(idGenerator.next())
                 .sessionGuid(UUID.randomUUID())
                 .sequenceNumber(1)
                 .machineId(1)
                 .data(List.of(
                                 MessageData.builder()
                                         .type(MessageDataType.DISTANCE)
-                                        .unit("m")
-                                        .value("100")
+                                        .value(100)
                                         .build(),
                                 MessageData.builder()
                                         .type(MessageDataType.WORKED_SURFACE)
-                                        .unit("m2")
-                                        .value("600")
+                                        .value(600)
                                         .build()
                         )
                 )
                 .build(), "inbound_message_queue");
         sendToKafka(Message.builder()
-                .id(UUID.randomUUID())
+                .id(idGenerator.next())
                 .sessionGuid(UUID.randomUUID())
                 .sequenceNumber(2)
                 .machineId(1)
                 .data(List.of(
                                 MessageData.builder()
                                         .type(MessageDataType.DISTANCE)
-                                        .unit("m")
-                                        .value("102")
+                                        .value(102)
                                         .build(),
                                 MessageData.builder()
                                         .type(MessageDataType.WORKED_SURFACE)
-                                        .unit("m2")
-                                        .value("610")
+                                        .value(610)
                                         .build()
                         )
                 )
@@ -68,16 +70,20 @@ public class    KafkaProducer {
 
     }
 
-    public void sendToKafka(Message data, String topic) {
-        final ProducerRecord<String, Message> record = new ProducerRecord<>(topic, data);
+    public CompletableFuture<SendResult<String, Message>> sendToKafka(Message data, String topic) {
+        final String key = topicConfig.keyStrategyFor(topic).keyOf(data);
+        final ProducerRecord<String, Message> record = new ProducerRecord<>(topic, key, data);
+        final long start = System.nanoTime();
         CompletableFuture<SendResult<String, Message>> future = kafkaTemplate.send(record);
 
         future.whenComplete((result, ex) -> {
+            metrics.send(topic, start, ex);
             if (ex == null) {
                 log.info(result.getProducerRecord().topic() + " - " + result.getProducerRecord().value());
             } else {
                 log.info(ex.toString());
             }
         });
+        return future;
     }
 }
\ No newline at end of file
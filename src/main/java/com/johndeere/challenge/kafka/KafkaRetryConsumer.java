@@ -0,0 +1,102 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.RetryConfig;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.MessageService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.KafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Processes the retry tier topics. A record that is not due yet is nacked, which pauses the
+ * consumer of its listener container until the record's due time. Every tier therefore gets a
+ * container of its own: a waiting record holds up its own tier, while the inbound topic and the
+ * other tiers keep flowing.
+ */
+@Slf4j
+@Component
+public class KafkaRetryConsumer implements KafkaListenerConfigurer {
+
+    private static final Method CONSUME = ReflectionUtils.findMethod(
+            KafkaRetryConsumer.class, "consume", ConsumerRecord.class, Acknowledgment.class);
+
+    private final MessageService service;
+    private final OutboundForwarder forwarder;
+    private final RetryRouter retryRouter;
+    private final RetryConfig retryConfig;
+    private final KafkaListenerContainerFactory<?> containerFactory;
+
+    public KafkaRetryConsumer(MessageService service, OutboundForwarder forwarder, RetryRouter retryRouter,
+                              RetryConfig retryConfig,
+                              @Qualifier("retryListenerContainerFactory") KafkaListenerContainerFactory<?> containerFactory) {
+        this.service = service;
+        this.forwarder = forwarder;
+        this.retryRouter = retryRouter;
+        this.retryConfig = retryConfig;
+        this.containerFactory = containerFactory;
+    }
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+        for (String topic : retryConfig.retryTopics()) {
+            MethodKafkaListenerEndpoint<String, Message> endpoint = new MethodKafkaListenerEndpoint<>();
+            endpoint.setId(topic);
+            endpoint.setGroupId("johndeere");
+            endpoint.setTopics(topic);
+            endpoint.setBean(this);
+            endpoint.setMethod(CONSUME);
+            endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+            registrar.registerEndpoint(endpoint, containerFactory);
+        }
+    }
+
+    public void consume(ConsumerRecord<String, Message> record, Acknowledgment ack) {
+        long wait = RetryRouter.dueAt(record.headers()) - System.currentTimeMillis();
+        if (wait > 0) {
+            ack.nack(Duration.ofMillis(wait));
+            return;
+        }
+
+        Message message = record.value();
+        if (message == null) {
+            log.warn("Received null message on {}, skipping", record.topic());
+            ack.acknowledge();
+            return;
+        }
+
+        int attempt = RetryRouter.attempt(record.headers());
+        if (RetryRouter.isForwardOnly(record.headers())) {
+            // Persisted on an earlier attempt, only forwarding failed
+            forwarder.deliver(List.of(message), attempt, "retried");
+            ack.acknowledge();
+            return;
+        }
+
+        boolean forward;
+        try {
+            forward = service.consumeMessage(message);
+        } catch (Exception e) {
+            retryRouter.route(message, attempt, e).join();
+            ack.acknowledge();
+            return;
+        }
+        if (forward) {
+            forwarder.deliver(List.of(message), attempt, "retried");
+        }
+        ack.acknowledge();
+    }
+}
@@ -0,0 +1,111 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.ConditionalOnListenerMode;
+import com.johndeere.challenge.config.ListenerConfig;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.MessageService;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Polls on the listener thread but processes on virtual threads, so the blocking lookup and
+ * Mongo calls of different sessions overlap without adding partitions.
+ * <p>
+ * Each session of a poll gets its own lane, processed in order on one virtual thread. Forwarding
+ * happens back on the listener thread, lane by lane, and the listener only returns, letting the
+ * container commit the offsets, once every lane has completed.
+ * <p>
+ * A lane that cannot route a failed message to a retry tier unpersists the messages it has
+ * persisted and stops. The other lanes are still forwarded, then the listener fails, so the
+ * container retries the poll: the failed lane is processed again and the rest are dropped as
+ * duplicates.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnListenerMode(ListenerConfig.Mode.VIRTUAL)
+public class KafkaVirtualThreadConsumer {
+
+    private final MessageService service;
+    private final OutboundForwarder forwarder;
+    private final RetryRouter retryRouter;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @KafkaListener(topics = "inbound_message_queue", groupId = "johndeere",
+            containerFactory = "concurrentKafkaListenerContainerFactory")
+    public void consume(List<Message> messages) throws InterruptedException {
+        Map<UUID, List<Message>> lanes = new LinkedHashMap<>();
+        for (Message message : messages) {
+            if (message == null) {
+                log.warn("Received null message, skipping processing");
+                continue;
+            }
+            lanes.computeIfAbsent(message.sessionGuid(), sessionGuid -> new ArrayList<>()).add(message);
+        }
+
+        log.debug("Batch received: size={}, sessions={}", messages.size(), lanes.size());
+
+        List<Future<List<Message>>> results = new ArrayList<>(lanes.size());
+        for (List<Message> lane : lanes.values()) {
+            results.add(executor.submit(() -> process(lane)));
+        }
+
+        List<Message> forward = new ArrayList<>();
+        Throwable laneFailure = null;
+        for (Future<List<Message>> result : results) {
+            try {
+                forward.addAll(result.get());
+            } catch (ExecutionException e) {
+                log.error("Error processing session lane: {}", e.getCause().getMessage(), e.getCause());
+                laneFailure = e.getCause();
+            }
+        }
+        forwarder.deliver(forward, 0, "authorized");
+        if (laneFailure != null) {
+            throw new KafkaException("Failed to process a session lane, retrying the poll", laneFailure);
+        }
+    }
+
+    private List<Message> process(List<Message> lane) {
+        List<Message> forward = new ArrayList<>(lane.size());
+        for (Message message : lane) {
+            try {
+                if (service.consumeMessage(message)) {
+                    forward.add(message);
+                }
+            } catch (Exception e) {
+                log.error("Error processing message with sessionGuid={}: {}",
+                        message.sessionGuid(), e.getMessage(), e);
+                try {
+                    retryRouter.route(message, 0, e).join();
+                } catch (RuntimeException routingFailure) {
+                    // Redelivery of the lane has to find its persisted messages gone, or it drops them as duplicates
+                    if (!forward.isEmpty()) {
+                        service.unpersist(forward);
+                    }
+                    throw routingFailure;
+                }
+            }
+        }
+        return forward;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.close();
+    }
+}
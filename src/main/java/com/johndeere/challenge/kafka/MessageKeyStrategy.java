@@ -0,0 +1,34 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.model.Message;
+
+/**
+ * How a {@link Message} is keyed when produced. Records with the same key land on the same
+ * partition and are therefore consumed in order by a single listener thread.
+ */
+public enum MessageKeyStrategy {
+    // No key: records are spread over partitions, no ordering guarantee
+    NONE {
+        @Override
+        public String keyOf(Message message) {
+            return null;
+        }
+    },
+    // All messages of a session stay on one partition
+    SESSION {
+        @Override
+        public String keyOf(Message message) {
+            return message.sessionGuid() == null ? null : message.sessionGuid().toString();
+        }
+    },
+    // All messages of a machine stay on one partition, across sessions
+    MACHINE {
+        @Override
+        public String keyOf(Message message) {
+            return Integer.toString(message.machineId());
+        }
+    },
+    ;
+
+    public abstract String keyOf(Message message);
+}
@@ -0,0 +1,168 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.OutboundProducerConfig;
+import com.johndeere.challenge.config.TopicConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.metrics.PipelineMetrics.Outcome;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.MessageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Forwards authorized messages to {@code outbound_message_queue} with the outbound producer profile.
+ * When {@code outbound.transactional} is set, sends from a listener thread are part of the
+ * listener container's transaction.
+ * <p>
+ * Listeners hand over all messages of a poll at once with {@link #deliver}: they are sent as one
+ * micro-batch, flushed, and their acknowledgements awaited before the listener returns and the
+ * container commits the inbound offsets, all within {@code outbound.ack-timeout}. At most
+ * {@code outbound.max-in-flight} forwards are unacknowledged at any time.
+ * <p>
+ * A record listener delivers every record on its own and so waits for an {@code acks=all} round
+ * trip per record, which leaves linger and batching nothing to work with; batch listeners amortize
+ * that round trip over a whole poll.
+ */
+@Slf4j
+@Component
+public class OutboundForwarder {
+
+    public static final String TOPIC = "outbound_message_queue";
+
+    private final KafkaTemplate<String, Message> kafkaTemplate;
+    private final TopicConfig topicConfig;
+    private final OutboundProducerConfig config;
+    private final RetryRouter retryRouter;
+    private final MessageService service;
+    private final PipelineMetrics metrics;
+    private final Semaphore inFlight;
+
+    public OutboundForwarder(@Qualifier("outboundKafkaTemplate") KafkaTemplate<String, Message> kafkaTemplate,
+                             TopicConfig topicConfig, OutboundProducerConfig config, RetryRouter retryRouter,
+                             MessageService service, PipelineMetrics metrics) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topicConfig = topicConfig;
+        this.config = config;
+        this.retryRouter = retryRouter;
+        this.service = service;
+        this.metrics = metrics;
+        this.inFlight = new Semaphore(config.getMaxInFlight());
+        metrics.gauge("outbound.in-flight", "Forwards to outbound_message_queue not yet acknowledged",
+                () -> config.getMaxInFlight() - inFlight.availablePermits());
+    }
+
+    /**
+     * Sends one message, waiting up to {@code outbound.ack-timeout} for room among the in-flight forwards.
+     */
+    public CompletableFuture<SendResult<String, Message>> forward(Message message) {
+        return forward(message, System.nanoTime() + config.getAckTimeout().toNanos());
+    }
+
+    private CompletableFuture<SendResult<String, Message>> forward(Message message, long deadline) {
+        try {
+            if (!inFlight.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return CompletableFuture.failedFuture(new TimeoutException(
+                        "No room among " + config.getMaxInFlight() + " in-flight forwards"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        final String key = topicConfig.keyStrategyFor(TOPIC).keyOf(message);
+        final long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Message>> future;
+        try {
+            future = kafkaTemplate.send(TOPIC, key, message);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((result, ex) -> {
+            inFlight.release();
+            metrics.send(TOPIC, start, ex);
+            if (ex != null) {
+                log.warn("Failed to forward message with sessionGuid={}: {}", message.sessionGuid(), ex.toString());
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Forwards the messages as one micro-batch and waits for their acknowledgements. Messages that
+     * could not be forwarded are sent to the retry tier after {@code attempt}, which only forwards
+     * them again.
+     *
+     * @param reason tag of the forwarded-message metric
+     * @throws KafkaException if failed forwards could not be routed either; they have then been
+     *                        unpersisted, so the listener fails and their redelivery processes them again
+     */
+    public void deliver(List<Message> messages, int attempt, String reason) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        // One deadline for the whole batch, covering both the wait for room and the acknowledgements
+        long deadline = System.nanoTime() + config.getAckTimeout().toNanos();
+        List<CompletableFuture<SendResult<String, Message>>> sends = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            sends.add(forward(message, deadline));
+        }
+        // Sends the accumulated records right away instead of waiting for linger to fill the batches
+        kafkaTemplate.flush();
+
+        List<Message> failed = new ArrayList<>();
+        List<CompletableFuture<?>> routed = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            Exception error = awaitAck(sends.get(i), deadline);
+            if (error == null) {
+                metrics.outcome(Outcome.FORWARDED, reason);
+                log.debug("Message forwarded to outbound queue: sessionGuid={}", message.sessionGuid());
+            } else {
+                metrics.outcome(Outcome.ERROR, "forward");
+                failed.add(message);
+                routed.add(retryRouter.routeForward(message, attempt, error));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(routed.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            log.error("Cannot route {} failed forwards to a retry tier: {}", failed.size(), e.getMessage());
+            service.unpersist(failed);
+            throw new KafkaException("Failed to forward " + failed.size() + " messages", e.getCause());
+        }
+    }
+
+    /**
+     * @return null if the send was acknowledged, otherwise its failure
+     */
+    private static Exception awaitAck(CompletableFuture<?> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause() instanceof Exception cause ? cause : e;
+        } catch (TimeoutException e) {
+            return e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+}
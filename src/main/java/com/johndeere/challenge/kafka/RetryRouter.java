@@ -0,0 +1,106 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.RetryConfig;
+import com.johndeere.challenge.config.TopicConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.metrics.PipelineMetrics.Outcome;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.FailureClassifier;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Routes messages that failed processing: transient failures go to the next retry tier topic,
+ * to be processed again by {@link KafkaRetryConsumer} once their delay has passed; permanent
+ * failures and messages out of retries go to the dead-letter topic.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class RetryRouter {
+
+    // Retries already made for the message
+    public static final String ATTEMPT_HEADER = "retry-attempt";
+    // Epoch millis before which the retry tier must not process the message
+    public static final String DUE_AT_HEADER = "retry-due-at";
+    public static final String ERROR_HEADER = "retry-error";
+    // Set to "forward" when the message is already persisted and only forwarding it failed
+    public static final String STAGE_HEADER = "retry-stage";
+    public static final String FORWARD_STAGE = "forward";
+
+    private final KafkaTemplate<String, Message> kafkaTemplate;
+    private final RetryConfig retryConfig;
+    private final TopicConfig topicConfig;
+    private final PipelineMetrics metrics;
+
+    /**
+     * @param attempt retries already made for the message, 0 when it failed on the inbound topic
+     * @return completes once the broker has accepted the routed message
+     */
+    public CompletableFuture<SendResult<String, Message>> route(Message message, int attempt, Exception error) {
+        return route(message, attempt, error, false);
+    }
+
+    /**
+     * Like {@link #route(Message, int, Exception)}, for a message that was persisted but could not
+     * be forwarded: the retry tier only forwards it again.
+     */
+    public CompletableFuture<SendResult<String, Message>> routeForward(Message message, int attempt, Exception error) {
+        return route(message, attempt, error, true);
+    }
+
+    public static boolean isForwardOnly(Headers headers) {
+        Header header = headers.lastHeader(STAGE_HEADER);
+        return header != null && FORWARD_STAGE.equals(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    private CompletableFuture<SendResult<String, Message>> route(Message message, int attempt, Exception error,
+                                                                 boolean forwardOnly) {
+        boolean isTransient = FailureClassifier.isTransient(error);
+        ProducerRecord<String, Message> record;
+
+        if (isTransient && attempt < retryConfig.getAttempts()) {
+            long dueAt = System.currentTimeMillis() + retryConfig.delay(attempt).toMillis();
+            record = record(retryConfig.retryTopic(attempt), message, attempt + 1, error);
+            record.headers().add(DUE_AT_HEADER, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+            metrics.outcome(Outcome.RETRIED, "transient");
+            log.warn("Message with sessionGuid={} sent to retry tier {}: {}", message.sessionGuid(), attempt, error.toString());
+        } else {
+            record = record(retryConfig.deadLetterTopic(), message, attempt, error);
+            metrics.outcome(Outcome.DEAD_LETTERED, isTransient ? "exhausted" : "permanent");
+            log.error("Message with sessionGuid={} sent to dead-letter topic after {} retries: {}",
+                    message.sessionGuid(), attempt, error.toString());
+        }
+        if (forwardOnly) {
+            record.headers().add(STAGE_HEADER, FORWARD_STAGE.getBytes(StandardCharsets.UTF_8));
+        }
+        return kafkaTemplate.send(record);
+    }
+
+    public static int attempt(Headers headers) {
+        Header header = headers.lastHeader(ATTEMPT_HEADER);
+        return header == null ? 0 : Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    public static long dueAt(Headers headers) {
+        Header header = headers.lastHeader(DUE_AT_HEADER);
+        return header == null ? 0 : Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    private ProducerRecord<String, Message> record(String topic, Message message, int attempt, Exception error) {
+        String key = topicConfig.keyStrategyFor(RetryConfig.SOURCE_TOPIC).keyOf(message);
+        ProducerRecord<String, Message> record = new ProducerRecord<>(topic, key, message);
+        record.headers().add(ATTEMPT_HEADER, String.valueOf(attempt).getBytes(StandardCharsets.UTF_8));
+        record.headers().add(ERROR_HEADER, String.valueOf(error).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
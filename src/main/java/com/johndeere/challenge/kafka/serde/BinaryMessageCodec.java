@@ -0,0 +1,119 @@
+package com.johndeere.challenge.kafka.serde;
+
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed binary layout of a {@link Message}, big-endian:
+ * <pre>
+ * version        1 byte   (1)
+ * flags          1 byte   bit 0: id present, bit 1: sessionGuid present, bit 2: data present
+ * id             16 bytes two longs, if present
+ * sessionGuid    16 bytes two longs, if present
+ * sequenceNumber 4 bytes
+ * machineId      4 bytes
+ * data count     2 bytes  unsigned, if present
+ * data           9 bytes each: type code (1 byte), value in SI unit (8 byte double)
+ * </pre>
+ */
+public final class BinaryMessageCodec {
+
+    static final byte VERSION = 1;
+
+    private static final int FLAG_ID = 1;
+    private static final int FLAG_SESSION = 1 << 1;
+    private static final int FLAG_DATA = 1 << 2;
+    private static final int MAX_DATA = 0xFFFF;
+
+    private BinaryMessageCodec() {
+    }
+
+    public static byte[] encode(Message message) {
+        List<MessageData> data = message.data();
+        if (data != null && data.size() > MAX_DATA) {
+            throw new SerializationException("Too many data entries for binary format: " + data.size());
+        }
+
+        int flags = (message.id() != null ? FLAG_ID : 0)
+                | (message.sessionGuid() != null ? FLAG_SESSION : 0)
+                | (data != null ? FLAG_DATA : 0);
+        int size = 2
+                + (message.id() != null ? 16 : 0)
+                + (message.sessionGuid() != null ? 16 : 0)
+                + 8
+                + (data != null ? 2 + 9 * data.size() : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.put((byte) flags);
+        if (message.id() != null) {
+            putUuid(buffer, message.id());
+        }
+        if (message.sessionGuid() != null) {
+            putUuid(buffer, message.sessionGuid());
+        }
+        buffer.putInt(message.sequenceNumber());
+        buffer.putInt(message.machineId());
+        if (data != null) {
+            buffer.putShort((short) data.size());
+            for (MessageData item : data) {
+                if (item.type() == null) {
+                    throw new SerializationException("Data type cannot be null");
+                }
+                buffer.put((byte) item.type().code());
+                buffer.putDouble(item.value());
+            }
+        }
+        return buffer.array();
+    }
+
+    public static Message decode(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new SerializationException("Unsupported binary message version: " + version);
+            }
+
+            int flags = buffer.get();
+            Message.MessageBuilder builder = Message.builder();
+            if ((flags & FLAG_ID) != 0) {
+                builder.id(getUuid(buffer));
+            }
+            if ((flags & FLAG_SESSION) != 0) {
+                builder.sessionGuid(getUuid(buffer));
+            }
+            builder.sequenceNumber(buffer.getInt());
+            builder.machineId(buffer.getInt());
+            if ((flags & FLAG_DATA) != 0) {
+                int count = Short.toUnsignedInt(buffer.getShort());
+                List<MessageData> data = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    data.add(new MessageData(MessageDataType.fromCode(Byte.toUnsignedInt(buffer.get())),
+                            buffer.getDouble()));
+                }
+                builder.data(data);
+            }
+            return builder.build();
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("Malformed binary message", e);
+        }
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
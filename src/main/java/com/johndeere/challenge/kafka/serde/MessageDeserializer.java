@@ -0,0 +1,40 @@
+package com.johndeere.challenge.kafka.serde;
+
+import com.johndeere.challenge.model.Message;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Reads {@link Message} values in whichever format the {@value MessageFormat#HEADER} header
+ * announces, so JSON and binary producers can share a topic during migration. Records without
+ * the header are read as JSON.
+ */
+public class MessageDeserializer implements Deserializer<Message> {
+
+    private final JsonDeserializer<Message> jsonDeserializer = new JsonDeserializer<>(Message.class, false);
+
+    @Override
+    public Message deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Message deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        Header header = headers == null ? null : headers.lastHeader(MessageFormat.HEADER);
+        return switch (MessageFormat.fromHeaderValue(header == null ? null : header.value())) {
+            case BINARY -> BinaryMessageCodec.decode(data);
+            case JSON -> jsonDeserializer.deserialize(topic, headers, data);
+        };
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,42 @@
+package com.johndeere.challenge.kafka.serde;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Wire formats of {@link com.johndeere.challenge.model.Message} on Kafka, announced per record
+ * in the {@value #HEADER} header so producers can be migrated one at a time.
+ */
+public enum MessageFormat {
+    JSON("application/json"),
+    BINARY("application/vnd.johndeere.message.v1"),
+    ;
+
+    public static final String HEADER = "content-type";
+
+    private final String contentType;
+    private final byte[] headerValue;
+
+    MessageFormat(String contentType) {
+        this.contentType = contentType;
+        this.headerValue = contentType.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    byte[] headerValue() {
+        return headerValue;
+    }
+
+    /**
+     * @return the format announced by a header value; records without the header are JSON
+     */
+    static MessageFormat fromHeaderValue(byte[] value) {
+        if (value != null && Arrays.equals(value, BINARY.headerValue)) {
+            return BINARY;
+        }
+        return JSON;
+    }
+}
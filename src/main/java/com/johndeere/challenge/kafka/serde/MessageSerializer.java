@@ -0,0 +1,56 @@
+package com.johndeere.challenge.kafka.serde;
+
+import com.johndeere.challenge.model.Message;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes {@link Message} values in the format selected by the {@value #FORMAT_CONFIG} producer
+ * property ({@code json} by default) and announces it in the {@value MessageFormat#HEADER} header.
+ */
+public class MessageSerializer implements Serializer<Message> {
+
+    public static final String FORMAT_CONFIG = "message.format";
+
+    private final JsonSerializer<Message> jsonSerializer = new JsonSerializer<>();
+    private MessageFormat format = MessageFormat.JSON;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object configured = configs.get(FORMAT_CONFIG);
+        if (configured != null) {
+            format = MessageFormat.valueOf(configured.toString().trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Message data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Message data) {
+        if (data == null) {
+            return null;
+        }
+
+        if (headers != null) {
+            headers.remove(MessageFormat.HEADER);
+            headers.add(MessageFormat.HEADER, format.headerValue());
+        }
+
+        return switch (format) {
+            case BINARY -> BinaryMessageCodec.encode(data);
+            case JSON -> jsonSerializer.serialize(topic, headers, data);
+        };
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
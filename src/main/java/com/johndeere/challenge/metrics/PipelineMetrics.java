@@ -0,0 +1,112 @@
+package com.johndeere.challenge.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the inbound-to-outbound pipeline:
+ * <ul>
+ *     <li>{@code pipeline.stage}: latency of each processing stage, tagged by {@code stage}</li>
+ *     <li>{@code pipeline.messages}: processed messages, tagged by {@code outcome} and {@code reason}</li>
+ *     <li>{@code pipeline.send}: producer send latency until the broker ack, tagged by {@code topic}
+ *     and {@code result}</li>
+ *     <li>{@code ingest.rejected}: REST messages refused by admission control, tagged by {@code reason}</li>
+ *     <li>{@code ingest.in-flight}: REST messages sent to Kafka and not yet acknowledged</li>
+ * </ul>
+ * Consumer lag comes from the Kafka client metrics ({@code kafka.consumer.fetch.manager.records.lag}).
+ */
+@Component
+public class PipelineMetrics {
+
+    public enum Stage {
+        AUTHORIZATION,
+        DEDUP,
+        PERSIST,
+        BULK_PERSIST,
+    }
+
+    public enum Outcome {
+        FORWARDED,
+        DROPPED,
+        ERROR,
+        // Sent to a retry tier after a transient failure
+        RETRIED,
+        // Sent to the dead-letter topic
+        DEAD_LETTERED,
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> sendTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("pipeline.stage")
+                    .description("Latency of a message processing stage")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    public <T> T time(Stage stage, Supplier<T> step) {
+        return stageTimers.get(stage).record(step);
+    }
+
+    public void record(Stage stage, long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void outcome(Outcome outcome, String reason) {
+        outcome(outcome, reason, 1);
+    }
+
+    public void outcome(Outcome outcome, String reason, int count) {
+        if (count <= 0) {
+            return;
+        }
+        outcomeCounters.computeIfAbsent(outcome.name() + ':' + reason, key -> Counter.builder("pipeline.messages")
+                        .description("Messages processed by the pipeline")
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .tag("reason", reason)
+                        .register(registry))
+                .increment(count);
+    }
+
+    public void send(String topic, long startNanos, Throwable error) {
+        String result = error == null ? "success" : "failure";
+        sendTimers.computeIfAbsent(topic + ':' + result, key -> Timer.builder("pipeline.send")
+                        .description("Producer send latency until the broker acknowledged the record")
+                        .tag("topic", topic)
+                        .tag("result", result)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rejected(String reason) {
+        rejectedCounters.computeIfAbsent(reason, key -> Counter.builder("ingest.rejected")
+                        .description("REST messages refused by admission control")
+                        .tag("reason", reason)
+                        .register(registry))
+                .increment();
+    }
+
+    public void gauge(String name, String description, Supplier<Number> value) {
+        Gauge.builder(name, value)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -5,12 +5,16 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Builder;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.List;
 import java.util.UUID;
 
 
 @Builder
+@Document(collection = "message")
+@CompoundIndex(name = "session_sequence", def = "{'sessionGuid': 1, 'sequenceNumber': 1}", unique = true)
 public record Message(
         @Id
         @NotNull(message = "Message ID cannot be null")
@@ -1,11 +1,57 @@
 package com.johndeere.challenge.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.johndeere.challenge.model.json.MessageDataDeserializer;
+import com.johndeere.challenge.model.json.MessageDataSerializer;
+import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 
+/**
+ * A telemetry reading normalized to the SI unit of its type ({@link MessageDataType#siUnit()}),
+ * e.g. metres for {@link MessageDataType#DISTANCE}.
+ */
 @Builder
+@JsonSerialize(using = MessageDataSerializer.class)
+@JsonDeserialize(using = MessageDataDeserializer.class)
 public record MessageData(
+        @NotNull(message = "Data type cannot be null")
         MessageDataType type,
-        String unit,
-        String value
+
+        double value
 ) {
-}
\ No newline at end of file
+
+    /**
+     * Normalizes a reading given as text in {@code unit} to the SI unit of its type.
+     */
+    public static MessageData of(MessageDataType type, String unit, String value) {
+        if (type == null) {
+            throw new IllegalArgumentException("Data type cannot be null");
+        }
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Value cannot be empty for " + type);
+        }
+
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Value is not numeric for " + type + ": " + value);
+        }
+        return of(type, unit, parsed);
+    }
+
+    /**
+     * Normalizes a reading in {@code unit} to the SI unit of its type.
+     */
+    public static MessageData of(MessageDataType type, String unit, double value) {
+        if (type == null) {
+            throw new IllegalArgumentException("Data type cannot be null");
+        }
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Value is not finite for " + type + ": " + value);
+        }
+
+        return new MessageData(type, type.toSi(unit, value));
+    }
+}
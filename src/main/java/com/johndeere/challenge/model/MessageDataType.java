@@ -1,27 +1,127 @@
 package com.johndeere.challenge.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.johndeere.challenge.model.json.MessageDataTypeDeserializer;
+import com.johndeere.challenge.model.json.MessageDataTypeSerializer;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Kind of a telemetry reading. Types are resolved by name through lookup tables built once, so
+ * adding types does not make resolution slower.
+ */
+@JsonSerialize(using = MessageDataTypeSerializer.class)
+@JsonDeserialize(using = MessageDataTypeDeserializer.class)
 public enum MessageDataType {
-    DISTANCE("distance"),
-    WORKED_SURFACE("workedSurface"),
+    DISTANCE("distance", 1, "m", Map.of(
+            "m", 1.0,
+            "mm", 0.001,
+            "cm", 0.01,
+            "km", 1_000.0,
+            "ft", 0.3048,
+            "yd", 0.9144,
+            "mi", 1_609.344)),
+    WORKED_SURFACE("workedSurface", 2, "m2", Map.of(
+            "m2", 1.0,
+            "m²", 1.0,
+            "km2", 1_000_000.0,
+            "ha", 10_000.0,
+            "ft2", 0.09290304,
+            "ac", 4_046.8564224)),
     ;
 
+    private static final MessageDataType[] BY_CODE = new MessageDataType[256];
+    private static final NameIndex<MessageDataType> BY_NAME;
+
+    static {
+        Map<String, MessageDataType> names = new HashMap<>();
+        for (MessageDataType type : values()) {
+            if (BY_CODE[type.code] != null) {
+                throw new IllegalStateException("Duplicate data type code " + type.code + ": " + type);
+            }
+            BY_CODE[type.code] = type;
+            names.put(type.name(), type);
+            names.put(type.jsonValue, type);
+        }
+        BY_NAME = new NameIndex<>(names);
+    }
+
     private final String jsonValue;
+    private final int code;
+    private final String siUnit;
+    private final Map<String, Double> unitFactors;
 
-    MessageDataType(String jsonValue) {
+    MessageDataType(String jsonValue, int code, String siUnit, Map<String, Double> unitFactors) {
         this.jsonValue = jsonValue;
+        this.code = code;
+        this.siUnit = siUnit;
+        this.unitFactors = unitFactors;
     }
 
-    public static MessageDataType fromString(String value) {
-        for (MessageDataType type : values()) {
-            if (type.jsonValue.equalsIgnoreCase(value) || type.name().replace("_", "").equalsIgnoreCase(value.replace("_", ""))) {
-                return type;
-            }
+    /**
+     * Resolves the enum name or JSON value of a type, ignoring case and underscores.
+     */
+    public static MessageDataType fromString(CharSequence value) {
+        MessageDataType type = BY_NAME.find(value);
+        if (type == null) {
+            throw new IllegalArgumentException("Data type not supported: " + value);
+        }
+        return type;
+    }
+
+    /**
+     * Like {@link #fromString(CharSequence)}, for the name in {@code chars[offset, offset + length)}.
+     *
+     * @return null if the name is unknown
+     */
+    public static MessageDataType find(char[] chars, int offset, int length) {
+        return BY_NAME.find(chars, offset, length);
+    }
+
+    /**
+     * Stable one-byte identifier used by the binary wire format. Never reuse or change a code
+     * once it has been published.
+     */
+    public int code() {
+        return code;
+    }
+
+    public static MessageDataType fromCode(int code) {
+        MessageDataType type = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Data type code not supported: " + code);
+        }
+        return type;
+    }
+
+    /**
+     * Unit every value of this type is stored and forwarded in.
+     */
+    public String siUnit() {
+        return siUnit;
+    }
+
+    /**
+     * Converts a value expressed in {@code unit} to {@link #siUnit()}. A missing unit means the
+     * value is already in the SI unit.
+     */
+    public double toSi(String unit, double value) {
+        if (unit == null || unit.isBlank()) {
+            return value;
+        }
+
+        Double factor = unitFactors.get(unit.trim().toLowerCase(Locale.ROOT));
+        if (factor == null) {
+            throw new IllegalArgumentException("Unit not supported for " + jsonValue + ": " + unit);
         }
-        throw new IllegalArgumentException("Data type not supported: " + value);
+        return value * factor;
     }
 
     @Override
     public String toString() {
         return jsonValue;
     }
-}
\ No newline at end of file
+}
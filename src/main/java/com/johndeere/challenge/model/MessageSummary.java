@@ -0,0 +1,28 @@
+package com.johndeere.challenge.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Map;
+
+/**
+ * Running totals of the persisted messages of one session or one machine, per data type, in
+ * the SI unit of the type.
+ */
+@Document(collection = "message_summaries")
+public record MessageSummary(
+        @Id
+        String id,
+
+        SummaryScope scope,
+
+        String key,
+
+        long messages,
+
+        // Highest sequence number seen; only meaningful for SESSION summaries
+        int lastSequenceNumber,
+
+        Map<MessageDataType, MetricSummary> metrics
+) {
+}
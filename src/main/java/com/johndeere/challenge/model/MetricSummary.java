@@ -0,0 +1,9 @@
+package com.johndeere.challenge.model;
+
+public record MetricSummary(
+        double sum,
+        double min,
+        double max,
+        long count
+) {
+}
@@ -0,0 +1,102 @@
+package com.johndeere.challenge.model;
+
+import java.util.Map;
+
+/**
+ * Fixed open-addressing hash table from names to values, built once. Lookups ignore ASCII case and
+ * underscores ({@code workedSurface}, {@code WORKED_SURFACE} and {@code worked_surface} are the same
+ * name), take constant time regardless of the number of names, and allocate nothing, so they can
+ * run directly on a parser's character buffer.
+ */
+final class NameIndex<T> {
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    NameIndex(Map<String, T> entries) {
+        int capacity = Integer.highestOneBit(Math.max(entries.size(), 1) * 4 - 1) << 1;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+
+        for (Map.Entry<String, T> entry : entries.entrySet()) {
+            String key = entry.getKey();
+            int slot = hash(key, null, 0, key.length()) & mask;
+            while (keys[slot] != null) {
+                if (matches(keys[slot], key, null, 0, key.length())) {
+                    if (values[slot] != entry.getValue()) {
+                        throw new IllegalArgumentException("Ambiguous name " + key + ": " + values[slot] + ", " + entry.getValue());
+                    }
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = entry.getValue();
+        }
+    }
+
+    T find(CharSequence name) {
+        return find(name, null, 0, name.length());
+    }
+
+    /**
+     * @return the value of the name in {@code chars[offset, offset + length)}, or null if unknown
+     */
+    T find(char[] chars, int offset, int length) {
+        return find(null, chars, offset, length);
+    }
+
+    // Names are read from exactly one of text and chars, so both kinds of input share one implementation
+    private T find(CharSequence text, char[] chars, int offset, int length) {
+        for (int slot = hash(text, chars, offset, length) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (matches(keys[slot], text, chars, offset, length)) {
+                @SuppressWarnings("unchecked")
+                T value = (T) values[slot];
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static int hash(CharSequence text, char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = charAt(text, chars, i);
+            if (c != '_') {
+                hash = 31 * hash + fold(c);
+            }
+        }
+        // Spreads the high bits into the low bits used for the slot, as HashMap does
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String key, CharSequence text, char[] chars, int offset, int length) {
+        int k = 0;
+        int i = offset;
+        int end = offset + length;
+        while (true) {
+            while (k < key.length() && key.charAt(k) == '_') {
+                k++;
+            }
+            while (i < end && charAt(text, chars, i) == '_') {
+                i++;
+            }
+            if (k == key.length() || i == end) {
+                return k == key.length() && i == end;
+            }
+            if (fold(key.charAt(k++)) != fold(charAt(text, chars, i++))) {
+                return false;
+            }
+        }
+    }
+
+    private static char charAt(CharSequence text, char[] chars, int index) {
+        return chars != null ? chars[index] : text.charAt(index);
+    }
+
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,11 @@
+package com.johndeere.challenge.model;
+
+public enum SummaryScope {
+    SESSION,
+    MACHINE,
+    ;
+
+    public String summaryId(Object key) {
+        return name().toLowerCase() + ':' + key;
+    }
+}
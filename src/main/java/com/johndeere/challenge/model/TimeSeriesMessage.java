@@ -0,0 +1,58 @@
+package com.johndeere.challenge.model;
+
+import lombok.Builder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Storage form of a {@link Message} in time-series mode. Mongo buckets the measurements by
+ * {@code meta}, so the messages of one machine and session are stored, compressed, together.
+ */
+@Builder
+@Document(collection = "message_ts")
+@TimeSeries(collection = "message_ts", timeField = "ingestedAt", metaField = "meta", granularity = Granularity.SECONDS)
+public record TimeSeriesMessage(
+        @Id
+        UUID id,
+
+        Instant ingestedAt,
+
+        Meta meta,
+
+        int sequenceNumber,
+
+        List<MessageData> data
+) {
+
+    public record Meta(
+            int machineId,
+            UUID sessionGuid
+    ) {
+    }
+
+    public static TimeSeriesMessage of(Message message, Instant ingestedAt) {
+        return TimeSeriesMessage.builder()
+                .id(message.id())
+                .ingestedAt(ingestedAt)
+                .meta(new Meta(message.machineId(), message.sessionGuid()))
+                .sequenceNumber(message.sequenceNumber())
+                .data(message.data())
+                .build();
+    }
+
+    public Message toMessage() {
+        return Message.builder()
+                .id(id)
+                .sessionGuid(meta.sessionGuid())
+                .sequenceNumber(sequenceNumber)
+                .machineId(meta.machineId())
+                .data(data)
+                .build();
+    }
+}
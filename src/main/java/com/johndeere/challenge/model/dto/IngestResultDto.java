@@ -0,0 +1,38 @@
+package com.johndeere.challenge.model.dto;
+
+import java.util.UUID;
+
+public record IngestResultDto(
+        int index,
+        UUID id,
+        Status status,
+        String error
+) {
+
+    public enum Status {
+        // Acknowledged by the broker
+        ACKED,
+        // Not sent: the item could not be parsed or failed validation
+        REJECTED,
+        // Sent, but the broker did not acknowledge it
+        FAILED,
+        // Not sent: the machine is over its rate limit or the producer is saturated; retry later
+        THROTTLED,
+    }
+
+    public static IngestResultDto acked(int index, UUID id) {
+        return new IngestResultDto(index, id, Status.ACKED, null);
+    }
+
+    public static IngestResultDto rejected(int index, String error) {
+        return new IngestResultDto(index, null, Status.REJECTED, error);
+    }
+
+    public static IngestResultDto throttled(int index, String error) {
+        return new IngestResultDto(index, null, Status.THROTTLED, error);
+    }
+
+    public static IngestResultDto failed(int index, UUID id, String error) {
+        return new IngestResultDto(index, id, Status.FAILED, error);
+    }
+}
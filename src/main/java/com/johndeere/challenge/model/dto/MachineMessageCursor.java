@@ -0,0 +1,40 @@
+package com.johndeere.challenge.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position of a message in the history of its machine. Messages of one bulk insert share their
+ * ingest time, so the id breaks ties.
+ */
+public record MachineMessageCursor(
+        Instant ingestedAt,
+        UUID id
+) {
+
+    /**
+     * Parses the {@link #toString()} form, e.g. a request parameter.
+     *
+     * @throws IllegalArgumentException if {@code value} is not a cursor
+     */
+    public static MachineMessageCursor valueOf(String value) {
+        int separator = value.indexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Not a cursor: " + value);
+        }
+        try {
+            return new MachineMessageCursor(Instant.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Not a cursor: " + value, e);
+        }
+    }
+
+    @JsonValue
+    @Override
+    public String toString() {
+        return ingestedAt + "_" + id;
+    }
+}
@@ -0,0 +1,12 @@
+package com.johndeere.challenge.model.dto;
+
+import com.johndeere.challenge.model.Message;
+
+import java.util.List;
+
+public record MachineMessagePageDto(
+        List<Message> messages,
+        // Pass as "after" to get the next page; null on the last page
+        MachineMessageCursor nextAfter
+) {
+}
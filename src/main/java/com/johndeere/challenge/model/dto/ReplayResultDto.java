@@ -0,0 +1,6 @@
+package com.johndeere.challenge.model.dto;
+
+public record ReplayResultDto(
+        int replayed
+) {
+}
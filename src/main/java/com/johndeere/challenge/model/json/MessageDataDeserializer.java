@@ -0,0 +1,68 @@
+package com.johndeere.challenge.model.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+
+import java.io.IOException;
+
+/**
+ * Reads both the typed form {@code {"type": "DISTANCE", "value": 100.0}} and the legacy form
+ * {@code {"type": "DISTANCE", "unit": "km", "value": "0.1"}} of {@link MessageData}, normalizing
+ * the latter. Numeric values are read as doubles without going through a string.
+ */
+public class MessageDataDeserializer extends StdDeserializer<MessageData> {
+
+    public MessageDataDeserializer() {
+        super(MessageData.class);
+    }
+
+    @Override
+    public MessageData deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME) {
+            return (MessageData) ctxt.handleUnexpectedToken(MessageData.class, p);
+        }
+
+        MessageDataType type = null;
+        String unit = null;
+        String text = null;
+        double number = 0;
+        boolean numeric = false;
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "type" -> type = MessageDataTypeDeserializer.read(p, ctxt);
+                case "unit" -> unit = p.getValueAsString();
+                case "value" -> {
+                    if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+                        number = p.getDoubleValue();
+                        numeric = true;
+                    } else if (value == JsonToken.VALUE_STRING) {
+                        text = p.getText();
+                        numeric = false;
+                    } else {
+                        return (MessageData) ctxt.handleUnexpectedToken(double.class, p);
+                    }
+                }
+                default -> ctxt.handleUnknownProperty(p, this, MessageData.class, field);
+            }
+        }
+
+        try {
+            return numeric ? MessageData.of(type, unit, number) : MessageData.of(type, unit, text);
+        } catch (IllegalArgumentException e) {
+            throw ValueInstantiationException.from(p, e.getMessage(), ctxt.constructType(MessageData.class), e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.johndeere.challenge.model.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.johndeere.challenge.model.MessageData;
+
+import java.io.IOException;
+
+/**
+ * Writes the typed form of {@link MessageData}, {@code {"type":"DISTANCE","value":100.0}}.
+ */
+public class MessageDataSerializer extends StdSerializer<MessageData> {
+
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString VALUE = new SerializedString("value");
+
+    public MessageDataSerializer() {
+        super(MessageData.class);
+    }
+
+    @Override
+    public void serialize(MessageData data, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(data);
+        gen.writeFieldName(TYPE);
+        if (data.type() == null) {
+            gen.writeNull();
+        } else {
+            MessageDataTypeSerializer.write(data.type(), gen);
+        }
+        gen.writeFieldName(VALUE);
+        gen.writeNumber(data.value());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,38 @@
+package com.johndeere.challenge.model.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.johndeere.challenge.model.MessageDataType;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@link MessageDataType} by enum name or JSON value, ignoring case and underscores,
+ * straight from the parser's character buffer.
+ */
+public class MessageDataTypeDeserializer extends StdScalarDeserializer<MessageDataType> {
+
+    public MessageDataTypeDeserializer() {
+        super(MessageDataType.class);
+    }
+
+    @Override
+    public MessageDataType deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return read(p, ctxt);
+    }
+
+    static MessageDataType read(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.hasToken(JsonToken.VALUE_STRING)) {
+            return (MessageDataType) ctxt.handleUnexpectedToken(MessageDataType.class, p);
+        }
+
+        MessageDataType type = MessageDataType.find(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        if (type == null) {
+            return (MessageDataType) ctxt.handleWeirdStringValue(MessageDataType.class, p.getText(),
+                    "Data type not supported");
+        }
+        return type;
+    }
+}
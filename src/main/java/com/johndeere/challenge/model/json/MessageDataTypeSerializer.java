@@ -0,0 +1,33 @@
+package com.johndeere.challenge.model.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.johndeere.challenge.model.MessageDataType;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writes a {@link MessageDataType} as its enum name, from names encoded once per type.
+ */
+public class MessageDataTypeSerializer extends StdScalarSerializer<MessageDataType> {
+
+    private static final SerializedString[] NAMES = Arrays.stream(MessageDataType.values())
+            .map(type -> new SerializedString(type.name()))
+            .toArray(SerializedString[]::new);
+
+    public MessageDataTypeSerializer() {
+        super(MessageDataType.class);
+    }
+
+    @Override
+    public void serialize(MessageDataType value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(value, gen);
+    }
+
+    static void write(MessageDataType value, JsonGenerator gen) throws IOException {
+        gen.writeString(NAMES[value.ordinal()]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.MessageSequenceDto;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+@AllArgsConstructor
+public class DocumentMessageStore implements MessageStore {
+
+    private final MessageRepository messageRepository;
+
+    @Override
+    public Message insert(Message message) {
+        return messageRepository.insert(message);
+    }
+
+    @Override
+    public List<Message> bulkInsert(List<Message> messages, BiConsumer<Message, Exception> rejections) {
+        return messageRepository.bulkInsert(messages, rejections);
+    }
+
+    @Override
+    public void deleteAll(List<Message> messages) {
+        messageRepository.deleteAllById(messages.stream().map(Message::id).toList());
+    }
+
+    @Override
+    public List<Message> findBySessionGuid(UUID sessionGuid) {
+        return messageRepository.findBySessionGuid(sessionGuid);
+    }
+
+    @Override
+    public List<MessageSequenceDto> findSequenceNumbersBySessionGuid(UUID sessionGuid) {
+        return messageRepository.findSequenceNumbersBySessionGuid(sessionGuid);
+    }
+
+    @Override
+    public List<Message> findPageBySessionGuid(UUID sessionGuid, int afterSequenceNumber, int limit) {
+        return messageRepository.findBySessionGuidAndSequenceNumberGreaterThanOrderBySequenceNumber(
+                sessionGuid, afterSequenceNumber, Limit.of(limit));
+    }
+
+    @Override
+    public Stream<Message> streamBySessionGuid(UUID sessionGuid) {
+        return messageRepository.streamBySessionGuidOrderBySequenceNumber(sessionGuid);
+    }
+}
@@ -0,0 +1,21 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.dto.MachineMessageCursor;
+import com.johndeere.challenge.model.dto.MachineMessagePageDto;
+
+import java.time.Instant;
+
+/**
+ * Time range queries over the messages of a machine, offered by the stores that keep the ingest
+ * time of each message.
+ */
+public interface MachineMessageStore {
+
+    /**
+     * @param after position of the last message of the previous page, or null for the first page
+     * @return up to {@code limit} messages of the machine ingested from {@code from} up to, not
+     * including, {@code to}, oldest first
+     */
+    MachineMessagePageDto findPageByMachineId(int machineId, Instant from, Instant to,
+                                              MachineMessageCursor after, int limit);
+}
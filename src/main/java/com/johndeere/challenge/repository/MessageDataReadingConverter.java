@@ -0,0 +1,28 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+/**
+ * Reads {@link MessageData} in both stored forms: the current one, a value already in the SI unit
+ * of its type, and the one written before values were normalized, a unit and a numeric string.
+ * Legacy readings are normalized as they are read, so old documents need no migration.
+ */
+@ReadingConverter
+public class MessageDataReadingConverter implements Converter<Document, MessageData> {
+
+    @Override
+    public MessageData convert(Document source) {
+        MessageDataType type = MessageDataType.fromString(source.getString("type"));
+        String unit = source.getString("unit");
+        Object value = source.get("value");
+        return switch (value) {
+            case Number number -> MessageData.of(type, unit, number.doubleValue());
+            case String text -> MessageData.of(type, unit, text);
+            case null, default -> throw new IllegalArgumentException("Value is not numeric for " + type + ": " + value);
+        };
+    }
+}
@@ -1,15 +1,28 @@
 package com.johndeere.challenge.repository;
 
 import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.MessageSequenceDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface MessageRepository extends MongoRepository<Message, UUID> {
+public interface MessageRepository extends MongoRepository<Message, UUID>, MessageRepositoryCustom {
 
     List<Message> findBySessionGuid(UUID sessionGuid);
 
+    // Answered from the session_sequence index alone, without fetching the documents
+    @Query(value = "{'sessionGuid': ?0}", fields = "{'_id': 0, 'sequenceNumber': 1}")
+    List<MessageSequenceDto> findSequenceNumbersBySessionGuid(UUID sessionGuid);
+
+    List<Message> findBySessionGuidAndSequenceNumberGreaterThanOrderBySequenceNumber(UUID sessionGuid,
+                                                                                     int sequenceNumber, Limit limit);
+
+    Stream<Message> streamBySessionGuidOrderBySequenceNumber(UUID sessionGuid);
+
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.Message;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public interface MessageRepositoryCustom {
+
+    /**
+     * Inserts all messages with a single unordered bulk write. A failing document does not
+     * abort the rest of the batch.
+     *
+     * @return the messages that were actually inserted
+     */
+    default List<Message> bulkInsert(List<Message> messages) {
+        return bulkInsert(messages, (message, e) -> {
+        });
+    }
+
+    /**
+     * Like {@link #bulkInsert(List)}, but hands every message rejected for any reason other than a
+     * duplicate key to {@code rejections}.
+     */
+    List<Message> bulkInsert(List<Message> messages, BiConsumer<Message, Exception> rejections);
+}
@@ -0,0 +1,76 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.Message;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@AllArgsConstructor
+public class MessageRepositoryCustomImpl implements MessageRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Message> bulkInsert(List<Message> messages, BiConsumer<Message, Exception> rejections) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class)
+                    .insert(messages)
+                    .execute();
+            return messages;
+        } catch (BulkOperationException e) {
+            return inserted(messages, e.getErrors(), rejections);
+        }
+    }
+
+    /**
+     * @return the messages of an unordered bulk insert that were not rejected by a write error
+     */
+    static List<Message> inserted(List<Message> messages, List<BulkWriteError> errors) {
+        return inserted(messages, errors, (message, e) -> {
+        });
+    }
+
+    /**
+     * Like {@link #inserted(List, List)}, handing messages rejected for any reason other than a
+     * duplicate key to {@code rejections}.
+     */
+    static List<Message> inserted(List<Message> messages, List<BulkWriteError> errors,
+                                  BiConsumer<Message, Exception> rejections) {
+        Map<Integer, BulkWriteError> failed = errors.stream()
+                .collect(Collectors.toMap(BulkWriteError::getIndex, Function.identity()));
+
+        List<Message> inserted = new ArrayList<>(messages.size() - failed.size());
+        for (int i = 0; i < messages.size(); i++) {
+            BulkWriteError error = failed.get(i);
+            if (error == null) {
+                inserted.add(messages.get(i));
+            } else if (error.getCode() == DUPLICATE_KEY) {
+                log.debug("Bulk insert rejected duplicate: sessionGuid={}, sequenceNumber={}",
+                        messages.get(i).sessionGuid(), messages.get(i).sequenceNumber());
+            } else {
+                log.warn("Bulk insert rejected message with sessionGuid={}, sequenceNumber={}: {}",
+                        messages.get(i).sessionGuid(), messages.get(i).sequenceNumber(), error.getMessage());
+                rejections.accept(messages.get(i), new DataIntegrityViolationException(error.getMessage()));
+            }
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,59 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.MessageSequenceDto;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Where persisted messages live, selected by {@code storage.mode}.
+ */
+public interface MessageStore {
+
+    /**
+     * @throws org.springframework.dao.DuplicateKeyException if the store enforces unique
+     *                                                        (sessionGuid, sequenceNumber) pairs and the pair is taken
+     */
+    Message insert(Message message);
+
+    /**
+     * Inserts all messages with a single unordered bulk write. A failing document does not
+     * abort the rest of the batch.
+     *
+     * @return the messages that were actually inserted
+     */
+    default List<Message> bulkInsert(List<Message> messages) {
+        return bulkInsert(messages, (message, e) -> {
+        });
+    }
+
+    /**
+     * Like {@link #bulkInsert(List)}, but hands every message rejected for any reason other than a
+     * duplicate (sessionGuid, sequenceNumber) pair to {@code rejections}, so it is not lost.
+     */
+    List<Message> bulkInsert(List<Message> messages, BiConsumer<Message, Exception> rejections);
+
+    /**
+     * Deletes the messages by id; messages that are not stored are ignored.
+     */
+    void deleteAll(List<Message> messages);
+
+    List<Message> findBySessionGuid(UUID sessionGuid);
+
+    List<MessageSequenceDto> findSequenceNumbersBySessionGuid(UUID sessionGuid);
+
+    /**
+     * @return up to {@code limit} messages of the session with a sequence number above
+     * {@code afterSequenceNumber}, in sequence order
+     */
+    List<Message> findPageBySessionGuid(UUID sessionGuid, int afterSequenceNumber, int limit);
+
+    /**
+     * @return the messages of the session in sequence order, read lazily from a database cursor
+     * that stays open until the stream is closed
+     */
+    Stream<Message> streamBySessionGuid(UUID sessionGuid);
+}
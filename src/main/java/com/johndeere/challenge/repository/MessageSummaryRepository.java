@@ -0,0 +1,9 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.MessageSummary;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MessageSummaryRepository extends MongoRepository<MessageSummary, String> {
+}
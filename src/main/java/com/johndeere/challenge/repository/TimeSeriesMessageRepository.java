@@ -0,0 +1,27 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.TimeSeriesMessage;
+import com.johndeere.challenge.model.dto.MessageSequenceDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface TimeSeriesMessageRepository extends MongoRepository<TimeSeriesMessage, UUID> {
+
+    List<TimeSeriesMessage> findByMetaSessionGuidOrderBySequenceNumber(UUID sessionGuid);
+
+    @Query(value = "{'meta.sessionGuid': ?0}", fields = "{'_id': 0, 'sequenceNumber': 1}")
+    List<MessageSequenceDto> findSequenceNumbersByMetaSessionGuid(UUID sessionGuid);
+
+    List<TimeSeriesMessage> findByMetaSessionGuidAndSequenceNumberGreaterThanOrderBySequenceNumber(UUID sessionGuid,
+                                                                                                   int sequenceNumber,
+                                                                                                   Limit limit);
+
+    Stream<TimeSeriesMessage> streamByMetaSessionGuidOrderBySequenceNumber(UUID sessionGuid);
+}
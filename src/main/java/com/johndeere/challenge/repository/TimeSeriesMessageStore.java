@@ -0,0 +1,162 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.TimeSeriesMessage;
+import com.johndeere.challenge.model.dto.MachineMessageCursor;
+import com.johndeere.challenge.model.dto.MachineMessagePageDto;
+import com.johndeere.challenge.model.dto.MessageSequenceDto;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores messages in the {@code message_ts} time-series collection, with machine and session as
+ * the meta field and the ingest time as the time field.
+ * <p>
+ * Time-series collections cannot have unique indexes, so duplicates are only caught by the
+ * in-memory {@code SessionSequenceIndex}: two consumers racing on the same session can both
+ * store a message.
+ */
+@Slf4j
+@AllArgsConstructor
+public class TimeSeriesMessageStore implements MessageStore, MachineMessageStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final TimeSeriesMessageRepository repository;
+
+    @PostConstruct
+    public void createCollection() {
+        // Inserting into a missing collection would create a regular one
+        if (!mongoTemplate.collectionExists(TimeSeriesMessage.class)) {
+            mongoTemplate.createCollection(TimeSeriesMessage.class);
+            log.info("Created time-series collection {}", mongoTemplate.getCollectionName(TimeSeriesMessage.class));
+        }
+        IndexOperations indexes = mongoTemplate.indexOps(TimeSeriesMessage.class);
+        indexes.createIndex(new Index()
+                .on("meta.sessionGuid", Sort.Direction.ASC)
+                .on("sequenceNumber", Sort.Direction.ASC)
+                .named("session_sequence"));
+        indexes.createIndex(new Index()
+                .on("meta.machineId", Sort.Direction.ASC)
+                .on("ingestedAt", Sort.Direction.ASC)
+                .named("machine_ingested_at"));
+    }
+
+    @Override
+    public Message insert(Message message) {
+        repository.insert(TimeSeriesMessage.of(message, Instant.now()));
+        return message;
+    }
+
+    /**
+     * Without a unique index nothing is rejected as a duplicate, so every rejected message is handed
+     * to {@code rejections}.
+     */
+    @Override
+    public List<Message> bulkInsert(List<Message> messages, BiConsumer<Message, Exception> rejections) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+
+        Instant ingestedAt = Instant.now();
+        List<TimeSeriesMessage> documents = messages.stream()
+                .map(message -> TimeSeriesMessage.of(message, ingestedAt))
+                .toList();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimeSeriesMessage.class)
+                    .insert(documents)
+                    .execute();
+            return messages;
+        } catch (BulkOperationException e) {
+            Map<Integer, BulkWriteError> failed = e.getErrors().stream()
+                    .collect(Collectors.toMap(BulkWriteError::getIndex, Function.identity()));
+            List<Message> inserted = new ArrayList<>(messages.size() - failed.size());
+            for (int i = 0; i < messages.size(); i++) {
+                BulkWriteError error = failed.get(i);
+                if (error == null) {
+                    inserted.add(messages.get(i));
+                } else {
+                    log.warn("Bulk insert rejected message with sessionGuid={}, sequenceNumber={}: {}",
+                            messages.get(i).sessionGuid(), messages.get(i).sequenceNumber(), error.getMessage());
+                    rejections.accept(messages.get(i), new DataIntegrityViolationException(error.getMessage()));
+                }
+            }
+            return inserted;
+        }
+    }
+
+    /**
+     * Deleting from a time-series collection by id needs MongoDB 7.0 or later.
+     */
+    @Override
+    public void deleteAll(List<Message> messages) {
+        repository.deleteAllById(messages.stream().map(Message::id).toList());
+    }
+
+    @Override
+    public List<Message> findBySessionGuid(UUID sessionGuid) {
+        return repository.findByMetaSessionGuidOrderBySequenceNumber(sessionGuid).stream()
+                .map(TimeSeriesMessage::toMessage)
+                .toList();
+    }
+
+    @Override
+    public List<MessageSequenceDto> findSequenceNumbersBySessionGuid(UUID sessionGuid) {
+        return repository.findSequenceNumbersByMetaSessionGuid(sessionGuid);
+    }
+
+    @Override
+    public List<Message> findPageBySessionGuid(UUID sessionGuid, int afterSequenceNumber, int limit) {
+        return repository.findByMetaSessionGuidAndSequenceNumberGreaterThanOrderBySequenceNumber(
+                        sessionGuid, afterSequenceNumber, Limit.of(limit)).stream()
+                .map(TimeSeriesMessage::toMessage)
+                .toList();
+    }
+
+    @Override
+    public Stream<Message> streamBySessionGuid(UUID sessionGuid) {
+        return repository.streamByMetaSessionGuidOrderBySequenceNumber(sessionGuid)
+                .map(TimeSeriesMessage::toMessage);
+    }
+
+    @Override
+    public MachineMessagePageDto findPageByMachineId(int machineId, Instant from, Instant to,
+                                                     MachineMessageCursor after, int limit) {
+        Criteria criteria = Criteria.where("meta.machineId").is(machineId)
+                .and("ingestedAt").gte(from).lt(to);
+        if (after != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("ingestedAt").gt(after.ingestedAt()),
+                    Criteria.where("ingestedAt").is(after.ingestedAt()).and("_id").gt(after.id()));
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by("ingestedAt", "_id"))
+                .limit(limit);
+        List<TimeSeriesMessage> documents = mongoTemplate.find(query, TimeSeriesMessage.class);
+
+        MachineMessageCursor nextAfter = documents.size() < limit ? null
+                : new MachineMessageCursor(documents.getLast().ingestedAt(), documents.getLast().id());
+        return new MachineMessagePageDto(documents.stream().map(TimeSeriesMessage::toMessage).toList(), nextAfter);
+    }
+}
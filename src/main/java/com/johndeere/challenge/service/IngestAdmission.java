@@ -0,0 +1,171 @@
+package com.johndeere.challenge.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.johndeere.challenge.config.IngestConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the REST ingest path.
+ * <p>
+ * A message is only handed to the producer when the number of unacknowledged REST messages is
+ * below {@code ingest.max-in-flight}, the producer buffer has enough free space, and its machine
+ * is within its token bucket. Otherwise it is refused right away, so a slow broker turns into
+ * fast 429/503 responses instead of Tomcat threads blocked inside {@code KafkaTemplate.send}.
+ */
+@Slf4j
+@Component
+public class IngestAdmission {
+
+    private final IngestConfig config;
+    private final KafkaTemplate<String, Message> kafkaTemplate;
+    private final PipelineMetrics metrics;
+    private final Semaphore inFlight;
+    private final LoadingCache<Integer, TokenBucket> machineBuckets;
+    private volatile double bufferAvailable = 1.0;
+
+    public IngestAdmission(IngestConfig config, KafkaTemplate<String, Message> kafkaTemplate, PipelineMetrics metrics) {
+        this.config = config;
+        this.kafkaTemplate = kafkaTemplate;
+        this.metrics = metrics;
+        this.inFlight = new Semaphore(config.getMaxInFlight());
+        // An idle bucket refills completely, so dropping it loses nothing
+        this.machineBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build(machineId -> new TokenBucket(config.getMachineRate(), config.getMachineBurst()));
+        metrics.gauge("ingest.in-flight", "REST messages sent to Kafka and not yet acknowledged",
+                () -> config.getMaxInFlight() - inFlight.availablePermits());
+    }
+
+    /**
+     * Admits a single message without waiting. A successful call must be paired with
+     * {@link #release()} once the send completes.
+     *
+     * @throws AdmissionRejectedException if the producer is saturated or the machine is over its rate
+     */
+    public void admit(int machineId) {
+        checkCapacity();
+        acquire(machineId, Duration.ZERO);
+    }
+
+    /**
+     * Like {@link #admit(int)}, but waits up to {@code ingest.admission-timeout} for an in-flight
+     * slot and does not check the producer buffer. Used by bulk uploads, which are meant to be paced
+     * by the broker rather than refused.
+     *
+     * @throws AdmissionRejectedException with {@link HttpStatus#SERVICE_UNAVAILABLE} if no slot
+     *                                    became free in time, or {@link HttpStatus#TOO_MANY_REQUESTS}
+     *                                    if the machine is over its rate
+     */
+    public void admitWaiting(int machineId) {
+        acquire(machineId, config.getAdmissionTimeout());
+    }
+
+    /**
+     * @throws AdmissionRejectedException if the producer buffer is nearly full
+     */
+    public void checkCapacity() {
+        if (bufferAvailable < config.getMinBufferAvailable()) {
+            throw reject(HttpStatus.SERVICE_UNAVAILABLE, "buffer", "Producer buffer is full");
+        }
+    }
+
+    /**
+     * @throws AdmissionRejectedException if the machine has used up its token bucket
+     */
+    public void checkRate(int machineId) {
+        if (!machineBuckets.get(machineId).tryConsume()) {
+            throw reject(HttpStatus.TOO_MANY_REQUESTS, "machine_rate", "Rate limit exceeded for machine " + machineId);
+        }
+    }
+
+    public void release() {
+        inFlight.release();
+    }
+
+    @Scheduled(fixedDelayString = "${ingest.buffer-sample-interval:PT1S}")
+    public void sampleProducerBuffer() {
+        double available = Double.NaN;
+        double total = Double.NaN;
+        try {
+            for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+                MetricName name = entry.getKey();
+                if (!"producer-metrics".equals(name.group())) {
+                    continue;
+                }
+                if ("buffer-available-bytes".equals(name.name())) {
+                    available = ((Number) entry.getValue().metricValue()).doubleValue();
+                } else if ("buffer-total-bytes".equals(name.name())) {
+                    total = ((Number) entry.getValue().metricValue()).doubleValue();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not sample producer buffer: {}", e.toString());
+            return;
+        }
+        bufferAvailable = total > 0 ? available / total : 1.0;
+    }
+
+    private void acquire(int machineId, Duration wait) {
+        // The slot is taken first, so a message refused for lack of one does not use up a token of its machine
+        boolean acquired = false;
+        try {
+            acquired = inFlight.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!acquired) {
+            throw reject(HttpStatus.SERVICE_UNAVAILABLE, "in_flight", "Too many messages awaiting acknowledgement");
+        }
+        try {
+            checkRate(machineId);
+        } catch (AdmissionRejectedException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private AdmissionRejectedException reject(HttpStatus status, String reason, String message) {
+        metrics.rejected(reason);
+        return new AdmissionRejectedException(status, config.getRetryAfter(), message);
+    }
+
+    private static final class TokenBucket {
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private TokenBucket(double tokensPerSecond, int capacity) {
+            this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
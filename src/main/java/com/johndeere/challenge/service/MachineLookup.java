@@ -0,0 +1,77 @@
+package com.johndeere.challenge.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.johndeere.challenge.config.MachineLookupConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.openapitools.client.api.PetApi;
+import org.openapitools.client.model.Pet;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caching front for the machine lookup service ({@link PetApi}).
+ * <p>
+ * Concurrent lookups of the same machine share a single remote call, entries are refreshed in
+ * the background before they expire, and unknown machines are cached as empty for a shorter
+ * time. Failed lookups are not cached.
+ */
+@Slf4j
+@Component
+public class MachineLookup {
+
+    private final PetApi petApi;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncLoadingCache<Long, Optional<Pet>> machines;
+
+    public MachineLookup(PetApi petApi, MachineLookupConfig config) {
+        this.petApi = petApi;
+        this.machines = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(Expiry.<Long, Optional<Pet>>writing((machineId, machine) ->
+                        machine.isPresent() ? config.getTtl() : config.getNegativeTtl()))
+                .refreshAfterWrite(config.getRefreshAfter())
+                .executor(executor)
+                .buildAsync(this::fetch);
+    }
+
+    /**
+     * @return the machine, or empty if the lookup service does not know it
+     */
+    public Optional<Pet> lookup(int machineId) {
+        try {
+            return lookupAsync(machineId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<Optional<Pet>> lookupAsync(int machineId) {
+        return machines.get((long) machineId);
+    }
+
+    private Optional<Pet> fetch(Long machineId) {
+        try {
+            return Optional.ofNullable(petApi.getPetById(machineId));
+        } catch (HttpClientErrorException.NotFound e) {
+            log.debug("Machine not found in lookup service: machineId={}", machineId);
+            return Optional.empty();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.close();
+    }
+}
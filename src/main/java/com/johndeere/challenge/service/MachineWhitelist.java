@@ -0,0 +1,87 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.config.MachineConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Whitelisted machines compiled into an immutable bitmap, so membership checks on the hot path
+ * neither box nor scan.
+ * <p>
+ * When {@code machine.whitelist-file} is set the file is polled and, on change, a new bitmap is
+ * built and swapped in atomically. In-flight checks keep reading the previous one.
+ */
+@Slf4j
+@Component
+public class MachineWhitelist {
+
+    private final MachineConfig machineConfig;
+    private volatile RoaringBitmap machines;
+    private volatile FileTime loadedVersion;
+
+    public MachineWhitelist(MachineConfig machineConfig) {
+        this.machineConfig = machineConfig;
+        this.machines = compile(machineConfig.getWhitelist());
+        reload();
+    }
+
+    public boolean contains(int machineId) {
+        return machines.contains(machineId);
+    }
+
+    public int size() {
+        return machines.getCardinality();
+    }
+
+    @Scheduled(fixedDelayString = "${machine.whitelist-reload-interval:PT30S}")
+    public void reload() {
+        Path file = machineConfig.getWhitelistFile();
+        if (file == null) {
+            return;
+        }
+
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(loadedVersion)) {
+                return;
+            }
+
+            List<Integer> ids = parse(Files.readAllLines(file));
+            if (ids.isEmpty()) {
+                log.warn("Machine whitelist file {} is empty, keeping the current whitelist", file);
+                return;
+            }
+
+            machines = compile(ids);
+            loadedVersion = modified;
+            log.info("Machine whitelist loaded from {}: {} machines", file, ids.size());
+        } catch (IOException | NumberFormatException e) {
+            log.error("Error reloading machine whitelist from {}, keeping the current whitelist: {}",
+                    file, e.getMessage());
+        }
+    }
+
+    private static List<Integer> parse(List<String> lines) {
+        return lines.stream()
+                .map(line -> line.replaceFirst("#.*", "").trim())
+                .filter(line -> !line.isEmpty())
+                .map(Integer::valueOf)
+                .toList();
+    }
+
+    private static RoaringBitmap compile(Collection<Integer> ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        ids.forEach(bitmap::add);
+        bitmap.runOptimize();
+        return bitmap;
+    }
+}
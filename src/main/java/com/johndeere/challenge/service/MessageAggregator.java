@@ -0,0 +1,211 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+import com.johndeere.challenge.model.MessageSummary;
+import com.johndeere.challenge.model.SummaryScope;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Incremental per-session and per-machine totals of the persisted messages.
+ * <p>
+ * Messages only update in-memory deltas; a scheduled flush merges every pending delta into its
+ * {@link MessageSummary} document with one unordered bulk of {@code $inc}/{@code $min}/{@code $max}
+ * upserts, so several consumer instances can aggregate into the same documents. Summaries lag the
+ * messages by at most one flush interval.
+ * <p>
+ * Messages that are deleted again after being accepted are {@link #retract retracted}, which
+ * subtracts their counts and sums. Minimums and maximums cannot be taken back; since retracted
+ * messages are redelivered with the same values, they end up the same.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class MessageAggregator {
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, Delta> deltas = new ConcurrentHashMap<>();
+
+    public void accept(Message message) {
+        accept(SummaryScope.SESSION, String.valueOf(message.sessionGuid()), message);
+        accept(SummaryScope.MACHINE, String.valueOf(message.machineId()), message);
+    }
+
+    /**
+     * Takes back the contribution of an accepted message that has been deleted from the store.
+     */
+    public void retract(Message message) {
+        retract(SummaryScope.SESSION, String.valueOf(message.sessionGuid()), message);
+        retract(SummaryScope.MACHINE, String.valueOf(message.machineId()), message);
+    }
+
+    private void accept(SummaryScope scope, String key, Message message) {
+        deltas.compute(scope.summaryId(key), (id, delta) -> {
+            Delta updated = delta == null ? new Delta(scope, key) : delta;
+            updated.add(message);
+            return updated;
+        });
+    }
+
+    private void retract(SummaryScope scope, String key, Message message) {
+        deltas.compute(scope.summaryId(key), (id, delta) -> {
+            Delta updated = delta == null ? new Delta(scope, key) : delta;
+            updated.remove(message);
+            return updated;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${aggregation.flush-interval:PT10S}")
+    public void flush() {
+        List<Delta> pending = new ArrayList<>();
+        for (String id : deltas.keySet()) {
+            Delta delta = deltas.remove(id);
+            if (delta != null) {
+                pending.add(delta);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MessageSummary.class);
+            for (Delta delta : pending) {
+                bulk.upsert(Query.query(where("_id").is(delta.id())), delta.toUpdate());
+            }
+            bulk.execute();
+            log.debug("Message summaries flushed: {}", pending.size());
+        } catch (BulkOperationException e) {
+            // The other upserts of the unordered bulk were applied, merging them again would count them twice
+            log.error("Error flushing {} of {} message summaries, retrying on next flush: {}",
+                    e.getErrors().size(), pending.size(), e.getMessage());
+            for (BulkWriteError error : e.getErrors()) {
+                requeue(pending.get(error.getIndex()));
+            }
+        } catch (Exception e) {
+            log.error("Error flushing {} message summaries, retrying on next flush: {}",
+                    pending.size(), e.getMessage());
+            pending.forEach(this::requeue);
+        }
+    }
+
+    private void requeue(Delta delta) {
+        deltas.merge(delta.id(), delta, Delta::merge);
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private static final class Delta {
+
+        private final SummaryScope scope;
+        private final String key;
+        private final Map<MessageDataType, Accumulator> metrics = new EnumMap<>(MessageDataType.class);
+        private long messages;
+        private int lastSequenceNumber;
+
+        Delta(SummaryScope scope, String key) {
+            this.scope = scope;
+            this.key = key;
+        }
+
+        String id() {
+            return scope.summaryId(key);
+        }
+
+        void add(Message message) {
+            messages++;
+            lastSequenceNumber = Math.max(lastSequenceNumber, message.sequenceNumber());
+            if (message.data() != null) {
+                for (MessageData data : message.data()) {
+                    metrics.computeIfAbsent(data.type(), type -> new Accumulator()).add(data.value());
+                }
+            }
+        }
+
+        void remove(Message message) {
+            messages--;
+            if (message.data() != null) {
+                for (MessageData data : message.data()) {
+                    metrics.computeIfAbsent(data.type(), type -> new Accumulator()).remove(data.value());
+                }
+            }
+        }
+
+        Delta merge(Delta other) {
+            messages += other.messages;
+            lastSequenceNumber = Math.max(lastSequenceNumber, other.lastSequenceNumber);
+            other.metrics.forEach((type, accumulator) ->
+                    metrics.merge(type, accumulator, Accumulator::merge));
+            return this;
+        }
+
+        Update toUpdate() {
+            Update update = new Update()
+                    .setOnInsert("scope", scope)
+                    .setOnInsert("key", key)
+                    .inc("messages", messages)
+                    .max("lastSequenceNumber", lastSequenceNumber);
+            metrics.forEach((type, accumulator) -> {
+                String prefix = "metrics." + type.name() + '.';
+                update.inc(prefix + "sum", accumulator.sum)
+                        .inc(prefix + "count", accumulator.count);
+                // A delta of retractions only has no bounds to merge
+                if (accumulator.min <= accumulator.max) {
+                    update.min(prefix + "min", accumulator.min)
+                            .max(prefix + "max", accumulator.max);
+                }
+            });
+            return update;
+        }
+    }
+
+    private static final class Accumulator {
+
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private long count;
+
+        void add(double value) {
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            count++;
+        }
+
+        void remove(double value) {
+            sum -= value;
+            count--;
+        }
+
+        Accumulator merge(Accumulator other) {
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            count += other.count;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.config.PipelineConfig;
+import com.johndeere.challenge.config.PipelineConfig.Check;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.metrics.PipelineMetrics.Stage;
+import com.johndeere.challenge.model.Message;
+import jakarta.annotation.PreDestroy;
+import org.openapitools.client.model.Pet;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides whether a message may be persisted, as a staged pipeline of checks.
+ * <p>
+ * Checks that can be answered from memory (the whitelist, a cached session or a cached machine)
+ * run first, in {@code pipeline.order}, and the first rejection ends the evaluation before anything
+ * remote is started. The remaining checks need I/O and all start at once, each bounded by its
+ * timeout, so the evaluation takes about as long as the slowest of them rather than their sum. The
+ * first remote rejection or failure completes the result.
+ */
+@Component
+public class MessageChecks {
+
+    public enum Verdict {
+        ACCEPTED("accepted"),
+        NOT_WHITELISTED("unauthorized"),
+        UNKNOWN_MACHINE("unauthorized"),
+        DUPLICATE("duplicate");
+
+        private final String reason;
+
+        Verdict(String reason) {
+            this.reason = reason;
+        }
+
+        // Tag of the dropped-message metric
+        public String reason() {
+            return reason;
+        }
+    }
+
+    private static final CompletableFuture<Verdict> ACCEPTED = CompletableFuture.completedFuture(Verdict.ACCEPTED);
+
+    private final MachineWhitelist machineWhitelist;
+    private final MachineLookup machineLookup;
+    private final SessionSequenceIndex sequenceIndex;
+    private final PipelineMetrics metrics;
+    private final PipelineConfig config;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public MessageChecks(MachineWhitelist machineWhitelist, MachineLookup machineLookup,
+                         SessionSequenceIndex sequenceIndex, PipelineMetrics metrics, PipelineConfig config) {
+        this.machineWhitelist = machineWhitelist;
+        this.machineLookup = machineLookup;
+        this.sequenceIndex = sequenceIndex;
+        this.metrics = metrics;
+        this.config = config;
+    }
+
+    /**
+     * @return the verdict, or a future failed with the error of a remote check, e.g. a
+     * {@link java.util.concurrent.TimeoutException} if it took longer than its timeout
+     */
+    public CompletableFuture<Verdict> evaluate(Message message) {
+        List<Check> remote = new ArrayList<>(config.getOrder().size());
+        try {
+            for (Check check : config.getOrder()) {
+                Verdict verdict = evaluateLocally(check, message);
+                if (verdict == null) {
+                    remote.add(check);
+                } else if (verdict != Verdict.ACCEPTED) {
+                    return CompletableFuture.completedFuture(verdict);
+                }
+            }
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (remote.isEmpty()) {
+            return ACCEPTED;
+        }
+
+        CompletableFuture<Verdict> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(remote.size());
+        for (Check check : remote) {
+            evaluateRemotely(check, message).whenComplete((verdict, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else if (verdict != Verdict.ACCEPTED) {
+                    result.complete(verdict);
+                } else if (pending.decrementAndGet() == 0) {
+                    result.complete(Verdict.ACCEPTED);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * @return the verdict of the check, or null if it cannot be answered without I/O
+     */
+    private Verdict evaluateLocally(Check check, Message message) {
+        return switch (check) {
+            case WHITELIST -> machineWhitelist.contains(message.machineId()) ? Verdict.ACCEPTED : Verdict.NOT_WHITELISTED;
+            case DEDUP -> sequenceIndex.isLoaded(message.sessionGuid())
+                    ? dedupVerdict(sequenceIndex.contains(message.sessionGuid(), message.sequenceNumber()))
+                    : null;
+            case LOOKUP -> {
+                // Starts the remote call on a cache miss, so it is already running when the remote stage begins
+                CompletableFuture<Optional<Pet>> machine = machineLookup.lookupAsync(message.machineId());
+                yield machine.isDone() && !machine.isCompletedExceptionally() ? lookupVerdict(machine.join()) : null;
+            }
+        };
+    }
+
+    private CompletableFuture<Verdict> evaluateRemotely(Check check, Message message) {
+        return switch (check) {
+            case WHITELIST -> CompletableFuture.completedFuture(evaluateLocally(check, message));
+            case DEDUP -> {
+                long start = System.nanoTime();
+                yield CompletableFuture
+                        .supplyAsync(() -> sequenceIndex.contains(message.sessionGuid(), message.sequenceNumber()), executor)
+                        .whenComplete((duplicate, error) -> metrics.record(Stage.DEDUP, start))
+                        .orTimeout(config.getDedupTimeout().toNanos(), TimeUnit.NANOSECONDS)
+                        .thenApply(MessageChecks::dedupVerdict);
+            }
+            // A copy, so the timeout does not fail the lookup shared through the cache
+            case LOOKUP -> machineLookup.lookupAsync(message.machineId())
+                    .copy()
+                    .orTimeout(config.getLookupTimeout().toNanos(), TimeUnit.NANOSECONDS)
+                    .thenApply(MessageChecks::lookupVerdict);
+        };
+    }
+
+    private static Verdict dedupVerdict(boolean duplicate) {
+        return duplicate ? Verdict.DUPLICATE : Verdict.ACCEPTED;
+    }
+
+    private static Verdict lookupVerdict(Optional<Pet> machine) {
+        return machine.isPresent() ? Verdict.ACCEPTED : Verdict.UNKNOWN_MACHINE;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.close();
+    }
+}
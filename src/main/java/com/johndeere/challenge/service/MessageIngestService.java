@@ -0,0 +1,143 @@
+package com.johndeere.challenge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.johndeere.challenge.id.IdGenerator;
+import com.johndeere.challenge.kafka.KafkaProducer;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.IngestResultDto;
+import com.johndeere.challenge.model.dto.MessageDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a bulk upload of {@link MessageDto}s to Kafka.
+ * <p>
+ * The body is read one item at a time, either as a JSON array or as newline-delimited JSON, and
+ * each valid item is sent as soon as it is parsed. Items wait for an {@link IngestAdmission}
+ * in-flight slot, so a large upload is paced by the broker instead of being buffered in memory;
+ * if no slot frees up in time the upload stops at that item. Results are only returned once every
+ * sent record has been acknowledged or has failed.
+ */
+@Slf4j
+@Service
+public class MessageIngestService {
+
+    private final KafkaProducer kafkaProducer;
+    private final IngestAdmission admission;
+    private final IdGenerator idGenerator;
+    private final Validator validator;
+    private final ObjectReader reader;
+
+    public MessageIngestService(KafkaProducer kafkaProducer, IngestAdmission admission, IdGenerator idGenerator,
+                                Validator validator, ObjectMapper objectMapper) {
+        this.kafkaProducer = kafkaProducer;
+        this.admission = admission;
+        this.idGenerator = idGenerator;
+        this.validator = validator;
+        this.reader = objectMapper.readerFor(MessageDto.class);
+    }
+
+    /**
+     * @return one result per item of the body, in order
+     * @throws AdmissionRejectedException if the producer is saturated before the first item
+     */
+    public List<IngestResultDto> ingest(InputStream body, String topic) throws IOException {
+        admission.checkCapacity();
+        List<CompletableFuture<IngestResultDto>> results = new ArrayList<>();
+
+        try (MappingIterator<MessageDto> items = reader.readValues(body)) {
+            while (true) {
+                int index = results.size();
+                MessageDto messageDto;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    messageDto = items.nextValue();
+                } catch (DatabindException e) {
+                    // Well-formed JSON that does not map to a message; the iterator skips past it
+                    results.add(CompletableFuture.completedFuture(IngestResultDto.rejected(index, e.getOriginalMessage())));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // Malformed JSON, nothing after this point can be read reliably
+                    log.debug("Bulk ingest stopped at item {}: {}", index, e.getOriginalMessage());
+                    results.add(CompletableFuture.completedFuture(IngestResultDto.rejected(index, e.getOriginalMessage())));
+                    break;
+                }
+
+                String violations = validate(messageDto);
+                if (violations != null) {
+                    results.add(CompletableFuture.completedFuture(IngestResultDto.rejected(index, violations)));
+                    continue;
+                }
+
+                try {
+                    admission.admitWaiting(messageDto.machineId());
+                } catch (AdmissionRejectedException e) {
+                    results.add(CompletableFuture.completedFuture(IngestResultDto.throttled(index, e.getMessage())));
+                    // Only this machine is over its rate; without a free slot, the broker is behind for every item
+                    if (e.getStatus() == HttpStatus.TOO_MANY_REQUESTS) {
+                        continue;
+                    }
+                    break;
+                }
+                results.add(send(index, messageDto, topic));
+            }
+        }
+
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Sends an item that already holds an in-flight slot, and frees the slot once the send completes.
+     */
+    private CompletableFuture<IngestResultDto> send(int index, MessageDto messageDto, String topic) {
+        Message message = Message.builder()
+                .id(idGenerator.next())
+                .sessionGuid(messageDto.sessionGuid())
+                .sequenceNumber(messageDto.sequenceNumber())
+                .machineId(messageDto.machineId())
+                .data(messageDto.data())
+                .build();
+
+        try {
+            return kafkaProducer.sendToKafka(message, topic)
+                    .handle((result, ex) -> {
+                        admission.release();
+                        return ex == null
+                                ? IngestResultDto.acked(index, message.id())
+                                : IngestResultDto.failed(index, message.id(), String.valueOf(ex.getMessage()));
+                    });
+        } catch (RuntimeException e) {
+            // The producer can fail before returning a future, e.g. when its buffer stays full for too long
+            admission.release();
+            return CompletableFuture.completedFuture(IngestResultDto.failed(index, message.id(), e.getMessage()));
+        }
+    }
+
+    String validate(MessageDto messageDto) {
+        Set<ConstraintViolation<MessageDto>> violations = validator.validate(messageDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
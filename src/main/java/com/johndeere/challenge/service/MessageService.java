@@ -1,89 +1,322 @@
 package com.johndeere.challenge.service;
 
-import com.johndeere.challenge.config.MachineConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.metrics.PipelineMetrics.Outcome;
+import com.johndeere.challenge.metrics.PipelineMetrics.Stage;
 import com.johndeere.challenge.model.Message;
-import com.johndeere.challenge.repository.MessageRepository;
+import com.johndeere.challenge.model.dto.MessagePageDto;
+import com.johndeere.challenge.repository.MessageStore;
+import com.johndeere.challenge.service.MessageChecks.Verdict;
+import com.johndeere.challenge.spool.MessageSpool;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.openapitools.client.api.PetApi;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class MessageService {
 
-    private final MessageRepository messageRepository;
-    private final MachineConfig machineConfig;
-    private final PetApi petApi;
+    private final MessageStore messageStore;
+    private final MessageChecks checks;
+    private final SessionSequenceIndex sequenceIndex;
+    private final PipelineMetrics metrics;
+    private final MessageAggregator aggregator;
+    private final MessageSpool spool;
 
     public boolean consumeMessage(Message message) {
         if (message == null) {
             log.warn("Received null message in service");
+            metrics.outcome(Outcome.DROPPED, "null");
             return false;
         }
 
         log.debug("Processing message: sessionGuid={}, sequenceNumber={}, machineId={}",
                 message.sessionGuid(), message.sequenceNumber(), message.machineId());
 
-        boolean isAuthorized = checkMachineAuthorization(message);
+        Verdict verdict;
+        try {
+            verdict = metrics.time(Stage.AUTHORIZATION, () -> await(checks.evaluate(message)));
+        } catch (RuntimeException e) {
+            log.error("Error during machine authorization for machineId {}: {}",
+                    message.machineId(), e.getMessage());
+            metrics.outcome(Outcome.ERROR, "authorization");
+            if (FailureClassifier.isTransient(e)) {
+                // The lookup service or Mongo is unavailable, the caller should retry rather than drop the message
+                throw e;
+            }
+            return false;
+        }
+        if (verdict != Verdict.ACCEPTED) {
+            metrics.outcome(Outcome.DROPPED, verdict.reason());
+            return false;
+        }
 
-        if (isAuthorized) {
-            saveMessage(message);
-            return true;
+        boolean saved = metrics.time(Stage.PERSIST, () -> saveMessage(message));
+        if (saved) {
+            aggregator.accept(message);
         } else {
-            return false;
+            metrics.outcome(Outcome.DROPPED, "duplicate");
         }
+        return saved;
     }
 
-    private boolean checkMachineAuthorization(Message message) {
-        // We are calling the PetApi to show how an external API would be used
-        // Then we are checking if the machineId is in the whitelist
-
-        try {
-            var machine = petApi.getPetById((long) message.machineId());
+    /**
+     * Batch counterpart of {@link #consumeMessage(Message)}: authorizes every message of a poll,
+     * drops duplicates (against already persisted messages and within the batch itself) and
+     * persists the survivors with a single unordered bulk insert. Messages whose authorization
+     * fails transiently are logged and skipped.
+     *
+     * @return the persisted messages, in input order, that should be forwarded
+     */
+    public List<Message> consumeMessages(List<Message> messages) {
+        return consumeMessages(messages, (message, e) -> {
+        });
+    }
 
-            boolean isNotDuplicate = isMessageNotDuplicate(message);
-            boolean isInWhitelist = machineConfig.getWhitelist().stream()
-                    .anyMatch(id -> id == message.machineId());
+    /**
+     * Like {@link #consumeMessages(List)}, but hands messages whose authorization fails transiently
+     * to {@code transientFailures} so they can be retried.
+     */
+    public List<Message> consumeMessages(List<Message> messages, BiConsumer<Message, Exception> transientFailures) {
+        long checksStart = System.nanoTime();
+        List<Message> accepted = accept(messages, evaluate(messages), checksStart, transientFailures);
 
-            return isInWhitelist && isNotDuplicate;
+        long persistStart = System.nanoTime();
+        List<Message> persisted = bulkInsert(accepted);
+        metrics.record(Stage.BULK_PERSIST, persistStart);
+        persisted(messages.size(), accepted, persisted);
+        return persisted;
+    }
 
-        } catch (Exception e) {
-            log.error("Error during machine authorization for machineId {}: {}",
-                    message.machineId(), e.getMessage());
-            return false;
+    /**
+     * Starts the checks of the whole batch at once, so remote checks of different messages overlap.
+     *
+     * @return one verdict per message, null for null messages
+     */
+    List<CompletableFuture<Verdict>> evaluate(List<Message> messages) {
+        List<CompletableFuture<Verdict>> verdicts = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            verdicts.add(message == null ? null : checks.evaluate(message));
         }
+        return verdicts;
     }
 
-    private boolean isMessageNotDuplicate(Message message) {
-        List<Message> existingMessages = getMessagesBySessionId(message.sessionGuid());
-        if (existingMessages.isEmpty()) {
-            return true;
+    /**
+     * Waits for the verdicts and drops rejected messages as well as duplicates within the batch.
+     * Records one authorization sample for the whole batch.
+     *
+     * @return the messages to persist, in input order
+     */
+    List<Message> accept(List<Message> messages, List<CompletableFuture<Verdict>> verdicts, long checksStart,
+                         BiConsumer<Message, Exception> transientFailures) {
+        List<Message> accepted = new ArrayList<>(messages.size());
+        Map<UUID, Set<Integer>> batchSequences = new HashMap<>();
+
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            if (message == null) {
+                log.warn("Received null message in batch, skipping");
+                metrics.outcome(Outcome.DROPPED, "null");
+                continue;
+            }
+
+            try {
+                Verdict verdict = await(verdicts.get(i));
+                if (verdict != Verdict.ACCEPTED) {
+                    log.debug("Message dropped: sessionGuid={}, sequenceNumber={}, verdict={}",
+                            message.sessionGuid(), message.sequenceNumber(), verdict);
+                    metrics.outcome(Outcome.DROPPED, verdict.reason());
+                    continue;
+                }
+
+                Set<Integer> sequences = batchSequences.computeIfAbsent(
+                        message.sessionGuid(), sessionGuid -> new HashSet<>());
+                if (!sequences.add(message.sequenceNumber())) {
+                    log.debug("Duplicate message dropped: sessionGuid={}, sequenceNumber={}",
+                            message.sessionGuid(), message.sequenceNumber());
+                    metrics.outcome(Outcome.DROPPED, "duplicate");
+                    continue;
+                }
+
+                accepted.add(message);
+            } catch (Exception e) {
+                log.error("Error during batch authorization for machineId {}: {}",
+                        message.machineId(), e.getMessage());
+                metrics.outcome(Outcome.ERROR, "authorization");
+                if (FailureClassifier.isTransient(e)) {
+                    transientFailures.accept(message, e);
+                }
+            }
         }
+        // The checks of a batch overlap, so they are timed once from their start until the last verdict
+        metrics.record(Stage.AUTHORIZATION, checksStart);
+        return accepted;
+    }
 
-        boolean isDuplicate = existingMessages.stream()
-                .anyMatch(existingMessage ->
-                        existingMessage.sequenceNumber() == message.sequenceNumber());
+    /**
+     * Records the outcome of a bulk insert of the accepted messages of a batch.
+     */
+    void persisted(int received, List<Message> accepted, List<Message> persisted) {
+        metrics.outcome(Outcome.DROPPED, "rejected", accepted.size() - persisted.size());
+        for (Message message : persisted) {
+            sequenceIndex.add(message.sessionGuid(), message.sequenceNumber());
+            aggregator.accept(message);
+        }
+        log.debug("Batch persisted: received={}, persisted={}", received, persisted.size());
+    }
 
-        return !isDuplicate;
+    private static Verdict await(CompletableFuture<Verdict> verdict) {
+        try {
+            return verdict.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
-    public void saveMessage(Message message) {
+    /**
+     * Inserts the message, relying on the unique (sessionGuid, sequenceNumber) index to reject
+     * duplicates that slipped past the in-memory check, e.g. from a concurrent consumer.
+     *
+     * @return false if the message was rejected as a duplicate
+     */
+    public boolean saveMessage(Message message) {
+        if (spool.isActive()) {
+            // Earlier messages are still waiting in the spool, inserting directly could overtake them
+            if (spool(message)) {
+                return true;
+            }
+            metrics.outcome(Outcome.ERROR, "persist");
+            throw new DataAccessResourceFailureException("Spool is full, cannot persist message");
+        }
+
         try {
-            messageRepository.save(message);
+            messageStore.insert(message);
+            sequenceIndex.add(message.sessionGuid(), message.sequenceNumber());
             log.debug("Message persisted: sessionGuid={}", message.sessionGuid());
+            return true;
+        } catch (DuplicateKeyException e) {
+            sequenceIndex.add(message.sessionGuid(), message.sequenceNumber());
+            log.debug("Duplicate message rejected by database: sessionGuid={}, sequenceNumber={}",
+                    message.sessionGuid(), message.sequenceNumber());
+            return false;
         } catch (Exception e) {
+            if (FailureClassifier.isTransient(e) && spool(message)) {
+                log.warn("Mongo unavailable, spooled message with sessionGuid {}: {}",
+                        message.sessionGuid(), e.getMessage());
+                return true;
+            }
             log.error("Error saving message with sessionGuid {}: {}",
                     message.sessionGuid(), e.getMessage(), e);
+            metrics.outcome(Outcome.ERROR, "persist");
             throw new RuntimeException("Failed to persist message", e);
         }
     }
 
+    /**
+     * Bulk counterpart of {@link #saveMessage(Message)}. If Mongo is unavailable and the batch does
+     * not fit into the spool, none of it is spooled and the failure is rethrown.
+     */
+    private List<Message> bulkInsert(List<Message> messages) {
+        if (spool.isActive()) {
+            if (spoolAll(messages)) {
+                return messages;
+            }
+            throw new DataAccessResourceFailureException("Spool is full, cannot persist batch of " + messages.size() + " messages");
+        }
+
+        try {
+            return messageStore.bulkInsert(messages);
+        } catch (RuntimeException e) {
+            if (FailureClassifier.isTransient(e) && spoolAll(messages)) {
+                log.warn("Mongo unavailable, spooled batch of {} messages: {}", messages.size(), e.getMessage());
+                return messages;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Spools either the whole batch or, if it does not fit, none of it, so a batch that is retried
+     * has no messages in the sequence index that were never passed on.
+     */
+    boolean spoolAll(List<Message> messages) {
+        if (!spool.offerAll(messages)) {
+            return false;
+        }
+        for (Message message : messages) {
+            sequenceIndex.add(message.sessionGuid(), message.sequenceNumber());
+        }
+        return true;
+    }
+
+    private boolean spool(Message message) {
+        if (!spool.offer(message)) {
+            return false;
+        }
+        // Redeliveries are dropped as duplicates while the message waits in the spool
+        sequenceIndex.add(message.sessionGuid(), message.sequenceNumber());
+        return true;
+    }
+
+    /**
+     * Compensates persisting messages that could not be passed on: deletes them and forgets their
+     * sequence numbers, so redelivered copies are processed again instead of dropped as duplicates.
+     * Their contribution to the message summaries is retracted, so the redelivered copies are not
+     * counted twice.
+     */
+    public void unpersist(List<Message> messages) {
+        messageStore.deleteAll(messages);
+        forget(messages);
+    }
+
+    /**
+     * Forgets the sequence numbers and summary contributions of messages deleted from the store.
+     */
+    void forget(List<Message> messages) {
+        for (Message message : messages) {
+            sequenceIndex.remove(message.sessionGuid(), message.sequenceNumber());
+            aggregator.retract(message);
+        }
+        log.warn("Reverted {} persisted messages", messages.size());
+    }
+
     public List<Message> getMessagesBySessionId(UUID sessionId) {
-        return messageRepository.findBySessionGuid(sessionId);
+        return messageStore.findBySessionGuid(sessionId);
+    }
+
+    /**
+     * @return up to {@code limit} messages of the session after {@code afterSequenceNumber}, in
+     * sequence order, with the cursor of the next page if there may be one
+     */
+    public MessagePageDto getMessagesPage(UUID sessionGuid, int afterSequenceNumber, int limit) {
+        List<Message> messages = messageStore.findPageBySessionGuid(sessionGuid, afterSequenceNumber, limit);
+        Integer nextAfter = messages.size() < limit ? null : messages.getLast().sequenceNumber();
+        return new MessagePageDto(messages, nextAfter);
+    }
+
+    /**
+     * @return the messages of the session in sequence order, backed by an open database cursor
+     * that the caller must close
+     */
+    public Stream<Message> streamMessages(UUID sessionGuid) {
+        return messageStore.streamBySessionGuid(sessionGuid);
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.johndeere.challenge.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.johndeere.challenge.config.DedupConfig;
+import com.johndeere.challenge.model.dto.MessageSequenceDto;
+import com.johndeere.challenge.repository.MessageStore;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * In-memory index of the sequence numbers already persisted per session.
+ * <p>
+ * Each session holds a compressed bitmap, so long sessions with mostly contiguous sequence
+ * numbers stay a few bytes per thousand messages. Idle sessions are evicted and rebuilt from
+ * Mongo on their next message.
+ */
+@Slf4j
+@Component
+public class SessionSequenceIndex {
+
+    private final MessageStore messageStore;
+    private final LoadingCache<UUID, RoaringBitmap> sessions;
+
+    public SessionSequenceIndex(MessageStore messageStore, DedupConfig dedupConfig) {
+        this.messageStore = messageStore;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(dedupConfig.getMaximumSessions())
+                .expireAfterAccess(dedupConfig.getExpireAfterAccess())
+                .build(this::load);
+    }
+
+    public boolean contains(UUID sessionGuid, int sequenceNumber) {
+        RoaringBitmap sequences = sessions.get(sessionGuid);
+        synchronized (sequences) {
+            return sequences.contains(sequenceNumber);
+        }
+    }
+
+    /**
+     * @return true if the session is in memory, so {@link #contains} answers without querying Mongo
+     */
+    public boolean isLoaded(UUID sessionGuid) {
+        return sessions.getIfPresent(sessionGuid) != null;
+    }
+
+    /**
+     * Records a persisted sequence number.
+     *
+     * @return false if the sequence number was already known for the session
+     */
+    public boolean add(UUID sessionGuid, int sequenceNumber) {
+        RoaringBitmap sequences = sessions.get(sessionGuid);
+        synchronized (sequences) {
+            return sequences.checkedAdd(sequenceNumber);
+        }
+    }
+
+    /**
+     * Forgets a sequence number whose message was deleted again.
+     */
+    public void remove(UUID sessionGuid, int sequenceNumber) {
+        RoaringBitmap sequences = sessions.getIfPresent(sessionGuid);
+        if (sequences != null) {
+            synchronized (sequences) {
+                sequences.remove(sequenceNumber);
+            }
+        }
+    }
+
+    private RoaringBitmap load(UUID sessionGuid) {
+        RoaringBitmap sequences = new RoaringBitmap();
+        for (MessageSequenceDto stored : messageStore.findSequenceNumbersBySessionGuid(sessionGuid)) {
+            sequences.add(stored.sequenceNumber());
+        }
+        sequences.runOptimize();
+
+        log.debug("Sequence index loaded: sessionGuid={}, messages={}",
+                sessionGuid, sequences.getCardinality());
+        return sequences;
+    }
+}
@@ -0,0 +1,169 @@
+package com.johndeere.challenge.spool;
+
+import com.johndeere.challenge.config.SpoolConfig;
+import com.johndeere.challenge.kafka.RetryRouter;
+import com.johndeere.challenge.kafka.serde.BinaryMessageCodec;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.repository.MessageStore;
+import com.johndeere.challenge.service.FailureClassifier;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Local, durable holding area for messages that cannot be persisted because Mongo is unavailable.
+ * <p>
+ * Messages are appended to a {@link SegmentLog} in the binary Kafka format and drained back to Mongo
+ * in order, one bulk insert per batch, once it recovers. A batch is kept while Mongo is unavailable,
+ * and duplicates from a repeated insert are rejected by the unique index. Messages Mongo rejects for
+ * good are moved to the dead-letter topic, so they cannot hold up the spool forever. While the spool
+ * is not empty, new messages are spooled as well so they cannot overtake earlier messages of their
+ * session.
+ */
+@Slf4j
+@Component
+public class MessageSpool {
+
+    private final SpoolConfig config;
+    private final MessageStore messageStore;
+    private final RetryRouter retryRouter;
+    private final PipelineMetrics metrics;
+    private SegmentLog segments;
+
+    public MessageSpool(SpoolConfig config, MessageStore messageStore, RetryRouter retryRouter, PipelineMetrics metrics) {
+        this.config = config;
+        this.messageStore = messageStore;
+        this.retryRouter = retryRouter;
+        this.metrics = metrics;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        segments = new SegmentLog(config.getDirectory(), Math.toIntExact(config.getSegmentSize().toBytes()),
+                config.getMaxSegments(), config.isSyncWrites());
+        metrics.gauge("spool.pending", "Messages waiting in the local spool to be persisted", segments::pending);
+    }
+
+    /**
+     * @return true while spooled messages are waiting to be drained
+     */
+    public boolean isActive() {
+        return segments != null && !segments.isEmpty();
+    }
+
+    /**
+     * @return false if the message was not spooled because the spool is disabled or full
+     */
+    public boolean offer(Message message) {
+        if (segments == null) {
+            return false;
+        }
+        if (!segments.append(BinaryMessageCodec.encode(message))) {
+            log.error("Spool is full, cannot hold message with sessionGuid={}", message.sessionGuid());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Spools either all messages or none of them.
+     *
+     * @return false if no message was spooled because the spool is disabled or they do not fit
+     */
+    public boolean offerAll(List<Message> messages) {
+        if (segments == null) {
+            return false;
+        }
+        List<byte[]> records = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            records.add(BinaryMessageCodec.encode(message));
+        }
+        if (!segments.appendAll(records)) {
+            log.error("Spool is full, cannot hold batch of {} messages", messages.size());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Moves spooled messages back to Mongo until the spool is empty or an insert fails.
+     *
+     * @return the number of messages drained
+     */
+    @Scheduled(fixedDelayString = "${spool.drain-interval:PT1S}")
+    public int drain() {
+        int drained = 0;
+        while (isActive()) {
+            SegmentLog.Batch batch = segments.read(config.getDrainBatchSize());
+            if (batch.records().isEmpty()) {
+                break;
+            }
+
+            List<Message> messages = new ArrayList<>(batch.records().size());
+            for (byte[] record : batch.records()) {
+                try {
+                    messages.add(BinaryMessageCodec.decode(record));
+                } catch (SerializationException e) {
+                    log.error("Dropping unreadable spooled message: {}", e.getMessage());
+                }
+            }
+            List<CompletableFuture<?>> quarantined = new ArrayList<>();
+            try {
+                messageStore.bulkInsert(messages, (message, e) -> quarantined.add(quarantine(message, e)));
+            } catch (Exception e) {
+                if (FailureClassifier.isTransient(e)) {
+                    log.warn("Cannot drain {} spooled messages yet, {} waiting: {}",
+                            messages.size(), segments.pending(), e.getMessage());
+                    break;
+                }
+                log.error("Mongo refused batch of {} spooled messages, moving them to the dead-letter topic: {}",
+                        messages.size(), e.getMessage());
+                messages.forEach(message -> quarantined.add(quarantine(message, e)));
+            }
+            try {
+                // Until they are on the dead-letter topic, rejected messages only exist in the spool
+                CompletableFuture.allOf(quarantined.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException e) {
+                log.warn("Cannot move rejected spooled messages to the dead-letter topic yet, {} waiting: {}",
+                        segments.pending(), e.getMessage());
+                break;
+            }
+            segments.commit(batch);
+            drained += messages.size();
+        }
+        if (drained > 0) {
+            log.info("Drained {} spooled messages to Mongo, {} waiting", drained, segments.pending());
+        }
+        return drained;
+    }
+
+    /**
+     * Sends a message Mongo will never accept to the dead-letter topic, so it cannot hold up the spool.
+     */
+    private CompletableFuture<?> quarantine(Message message, Exception error) {
+        try {
+            return retryRouter.route(message, 0, error);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (segments != null) {
+            segments.close();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.johndeere.challenge.spool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of byte records in fixed-size, memory-mapped segment files, read in append order.
+ * <p>
+ * Each record is written as
+ * <pre>
+ * length   4 bytes  payload length, written last so a torn append reads as the end of the log
+ * checksum 4 bytes  CRC32C of the payload
+ * payload  length bytes
+ * </pre>
+ * A zero length marks the end of the data in a segment. The read position is kept in a
+ * {@code checkpoint} file; segments are deleted once they are read past and committed. Appends and
+ * reads may come from different threads, but there must be a single reader.
+ */
+@Slf4j
+public class SegmentLog implements Closeable {
+
+    static final int HEADER = 8;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean syncWrites;
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private final MappedByteBuffer checkpoint;
+
+    private long readSegment;
+    private int readPosition;
+    private long writeSegment;
+    private int writePosition;
+    private long pending;
+
+    public SegmentLog(Path directory, int segmentSize, int maxSegments, boolean syncWrites) {
+        if (segmentSize <= HEADER) {
+            throw new IllegalArgumentException("Segment size must exceed " + HEADER + " bytes: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.syncWrites = syncWrites;
+        try {
+            Files.createDirectories(directory);
+            checkpoint = map(directory.resolve(CHECKPOINT), Long.BYTES + Integer.BYTES);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open segment log in " + directory, e);
+        }
+    }
+
+    /**
+     * @return false if the record was not appended because every segment is full
+     * @throws IllegalArgumentException if the record cannot fit into a segment
+     */
+    public synchronized boolean append(byte[] record) {
+        int size = sizeOf(record);
+        if (writePosition + size > segmentSize) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            writeSegment++;
+            writePosition = 0;
+            segments.put(writeSegment, mapSegment(writeSegment));
+        }
+
+        MappedByteBuffer segment = segments.get(writeSegment);
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        segment.put(writePosition + HEADER, record);
+        segment.putInt(writePosition + Integer.BYTES, (int) crc.getValue());
+        segment.putInt(writePosition, record.length);
+        if (syncWrites) {
+            segment.force(writePosition, size);
+        }
+        writePosition += size;
+        pending++;
+        return true;
+    }
+
+    /**
+     * Appends either all records or, if they do not fit into the free segments together, none of them.
+     *
+     * @return false if no record was appended because the segments would fill up
+     * @throws IllegalArgumentException if a record cannot fit into a segment
+     */
+    public synchronized boolean appendAll(List<byte[]> records) {
+        int position = writePosition;
+        int segmentCount = segments.size();
+        for (byte[] record : records) {
+            int size = sizeOf(record);
+            if (position + size > segmentSize) {
+                if (segmentCount >= maxSegments) {
+                    return false;
+                }
+                segmentCount++;
+                position = 0;
+            }
+            position += size;
+        }
+
+        for (byte[] record : records) {
+            append(record);
+        }
+        return true;
+    }
+
+    private int sizeOf(byte[] record) {
+        int size = HEADER + record.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Record of " + record.length + " bytes exceeds segment size " + segmentSize);
+        }
+        return size;
+    }
+
+    /**
+     * Reads up to {@code max} records from the read position without consuming them; they are only
+     * consumed by {@link #commit(Batch)}.
+     */
+    public synchronized Batch read(int max) {
+        List<byte[]> records = new ArrayList<>(Math.min(max, (int) Math.min(pending, Integer.MAX_VALUE)));
+        long segment = readSegment;
+        int position = readPosition;
+        while (records.size() < max && (segment != writeSegment || position < writePosition)) {
+            MappedByteBuffer buffer = segments.get(segment);
+            byte[] record = position + HEADER <= segmentSize ? readRecord(buffer, position) : null;
+            if (record == null) {
+                if (segment == writeSegment) {
+                    break;
+                }
+                // End of a segment that was rolled over, or a corrupt record that makes the rest of it unreadable
+                segment = segments.higherKey(segment);
+                position = 0;
+                continue;
+            }
+            records.add(record);
+            position += HEADER + record.length;
+        }
+        return new Batch(records, segment, position);
+    }
+
+    /**
+     * Consumes the records of a batch returned by {@link #read(int)}, deleting segments that were read past.
+     */
+    public synchronized void commit(Batch batch) {
+        while (readSegment < batch.segment()) {
+            deleteSegment(readSegment);
+            readSegment = segments.firstKey();
+        }
+        readPosition = batch.position();
+        // A segment read to its end is deleted right away, not only once the next batch moves past it
+        while (readSegment != writeSegment
+                && (readPosition + HEADER > segmentSize || segments.get(readSegment).getInt(readPosition) == 0)) {
+            deleteSegment(readSegment);
+            readSegment = segments.firstKey();
+            readPosition = 0;
+        }
+        pending -= batch.records().size();
+        checkpoint.putLong(0, readSegment);
+        checkpoint.putInt(Long.BYTES, readPosition);
+        if (syncWrites) {
+            checkpoint.force();
+        }
+    }
+
+    public synchronized long pending() {
+        return pending;
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending == 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.values().forEach(MappedByteBuffer::force);
+        checkpoint.force();
+        segments.clear();
+    }
+
+    public record Batch(List<byte[]> records, long segment, int position) {
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .forEach(id -> segments.put(id, mapSegment(id)));
+        }
+
+        readSegment = checkpoint.getLong(0);
+        readPosition = checkpoint.getInt(Long.BYTES);
+        // Segments before the checkpoint were drained before the last shutdown but not yet deleted
+        while (!segments.isEmpty() && segments.firstKey() < readSegment) {
+            deleteSegment(segments.firstKey());
+        }
+        if (segments.isEmpty() || segments.firstKey() > readSegment) {
+            readPosition = 0;
+            readSegment = segments.isEmpty() ? readSegment : segments.firstKey();
+        }
+        if (segments.isEmpty()) {
+            segments.put(readSegment, mapSegment(readSegment));
+        }
+
+        writeSegment = segments.lastKey();
+        for (Map.Entry<Long, MappedByteBuffer> segment : segments.tailMap(readSegment, true).entrySet()) {
+            int position = segment.getKey() == readSegment ? readPosition : 0;
+            byte[] record;
+            while (position + HEADER <= segmentSize && (record = readRecord(segment.getValue(), position)) != null) {
+                position += HEADER + record.length;
+                pending++;
+            }
+            writePosition = position;
+        }
+        if (pending > 0) {
+            log.info("Recovered {} unread records from segment log {}", pending, directory);
+        }
+    }
+
+    private byte[] readRecord(MappedByteBuffer segment, int position) {
+        int length = segment.getInt(position);
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0 || length > segmentSize - position - HEADER) {
+            log.error("Corrupt record length {} at {} in segment log {}", length, position, directory);
+            return null;
+        }
+
+        byte[] record = new byte[length];
+        segment.get(position + HEADER, record);
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        if ((int) crc.getValue() != segment.getInt(position + Integer.BYTES)) {
+            log.error("Checksum mismatch at {} in segment log {}", position, directory);
+            return null;
+        }
+        return record;
+    }
+
+    private MappedByteBuffer mapSegment(long id) {
+        try {
+            return map(directory.resolve("%020d%s".formatted(id, SEGMENT_SUFFIX)), segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map segment " + id + " in " + directory, e);
+        }
+    }
+
+    private void deleteSegment(long id) {
+        segments.remove(id);
+        try {
+            // The mapping stays valid until it is garbage collected, deleting only unlinks the file
+            Files.deleteIfExists(directory.resolve("%020d%s".formatted(id, SEGMENT_SUFFIX)));
+        } catch (IOException e) {
+            log.warn("Cannot delete drained segment {} in {}: {}", id, directory, e.getMessage());
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping beyond the end of a new file extends it with zeros, which read as "no record"
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
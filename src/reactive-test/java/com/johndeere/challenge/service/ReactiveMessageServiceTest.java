@@ -0,0 +1,153 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.config.DedupConfig;
+import com.johndeere.challenge.config.MachineLookupConfig;
+import com.johndeere.challenge.config.PipelineConfig;
+import com.johndeere.challenge.config.StorageConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.MessageSequenceDto;
+import com.johndeere.challenge.repository.MessageStore;
+import com.johndeere.challenge.repository.ReactiveMessageRepository;
+import com.johndeere.challenge.spool.MessageSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openapitools.client.api.PetApi;
+import org.openapitools.client.model.Pet;
+import org.springframework.dao.DataAccessResourceFailureException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveMessageServiceTest {
+
+    @Mock
+    private MessageStore messageStore;
+
+    @Mock
+    private ReactiveMessageRepository repository;
+
+    @Mock
+    private MachineWhitelist machineWhitelist;
+
+    @Mock
+    private PetApi petApi;
+
+    @Mock
+    private MessageAggregator aggregator;
+
+    @Mock
+    private MessageSpool spool;
+
+    private ReactiveMessageService reactiveMessageService;
+
+    private UUID testSessionGuid;
+
+    @BeforeEach
+    void setUp() {
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        SessionSequenceIndex sequenceIndex = new SessionSequenceIndex(messageStore, new DedupConfig());
+        MessageChecks checks = new MessageChecks(machineWhitelist,
+                new MachineLookup(petApi, new MachineLookupConfig()), sequenceIndex, metrics, new PipelineConfig());
+        MessageService messageService = new MessageService(messageStore, checks, sequenceIndex, metrics, aggregator, spool);
+        reactiveMessageService = new ReactiveMessageService(messageService, repository, metrics, spool, new StorageConfig());
+
+        testSessionGuid = UUID.randomUUID();
+    }
+
+    @Test
+    void consumeMessages_MixedBatch_BulkInsertsOnlyAuthorizedUniqueMessages() {
+
+        Message authorized = message(1, 1);
+        Message unauthorized = message(2, 9);
+        Message duplicateInBatch = message(1, 1);
+        Message alreadyStored = message(3, 1);
+
+        whitelist(1, 2, 3);
+        when(petApi.getPetById(anyLong())).thenReturn(new Pet());
+        when(messageStore.findSequenceNumbersBySessionGuid(testSessionGuid))
+                .thenReturn(List.of(new MessageSequenceDto(alreadyStored.sequenceNumber())));
+        when(repository.bulkInsert(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+
+        List<Message> result = reactiveMessageService.consumeMessages(
+                List.of(authorized, unauthorized, duplicateInBatch, alreadyStored), (message, e) -> fail()).block();
+
+
+        assertEquals(List.of(authorized), result);
+        verify(repository).bulkInsert(List.of(authorized));
+        verify(aggregator).accept(authorized);
+        verifyNoMoreInteractions(aggregator);
+    }
+
+    @Test
+    void consumeMessages_LookupServiceUnavailable_ReportsTransientFailure() {
+
+        Message authorized = message(1, 1);
+        Message unreachable = message(2, 2);
+
+        whitelist(1, 2);
+        when(petApi.getPetById(1L)).thenReturn(new Pet());
+        when(petApi.getPetById(2L)).thenThrow(new DataAccessResourceFailureException("Lookup down"));
+        when(messageStore.findSequenceNumbersBySessionGuid(any())).thenReturn(List.of());
+        when(repository.bulkInsert(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        List<Message> retried = new ArrayList<>();
+
+
+        List<Message> result = reactiveMessageService.consumeMessages(
+                List.of(authorized, unreachable), (message, e) -> retried.add(message)).block();
+
+
+        assertEquals(List.of(authorized), result);
+        assertEquals(List.of(unreachable), retried);
+    }
+
+    @Test
+    void consumeMessages_MongoUnavailable_SpoolsBatch() {
+
+        Message authorized = message(1, 1);
+
+        whitelist(1);
+        when(petApi.getPetById(1L)).thenReturn(new Pet());
+        when(messageStore.findSequenceNumbersBySessionGuid(any())).thenReturn(List.of());
+        when(repository.bulkInsert(any())).thenReturn(Mono.error(new DataAccessResourceFailureException("Mongo down")));
+        when(spool.offerAll(List.of(authorized))).thenReturn(true);
+
+
+        List<Message> result = reactiveMessageService.consumeMessages(List.of(authorized), (message, e) -> fail()).block();
+
+
+        assertEquals(List.of(authorized), result);
+        verify(spool).offerAll(List.of(authorized));
+        verify(aggregator).accept(authorized);
+    }
+
+    private Message message(int sequenceNumber, int machineId) {
+        return Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(testSessionGuid)
+                .sequenceNumber(sequenceNumber)
+                .machineId(machineId)
+                .data(List.of())
+                .build();
+    }
+
+    private void whitelist(Integer... machineIds) {
+        List<Integer> whitelisted = List.of(machineIds);
+        when(machineWhitelist.contains(anyInt()))
+                .thenAnswer(invocation -> whitelisted.contains(invocation.<Integer>getArgument(0)));
+    }
+}
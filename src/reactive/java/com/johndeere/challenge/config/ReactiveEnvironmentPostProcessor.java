@@ -0,0 +1,28 @@
+package com.johndeere.challenge.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Makes the reactive build start as a reactive node. The defaults have the lowest precedence, so
+ * {@code application.yml}, environment variables or arguments can still select another mode.
+ */
+public class ReactiveEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final Map<String, Object> DEFAULTS = Map.of(
+            // Netty instead of Tomcat, although the servlet stack is still on the classpath
+            "spring.main.web-application-type", "reactive",
+            // reactor-kafka instead of @KafkaListener for inbound_message_queue
+            "listener.mode", "reactive",
+            // Controllers without a reactive counterpart run on virtual threads instead of the event loop
+            "spring.threads.virtual.enabled", "true");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        environment.getPropertySources().addLast(new MapPropertySource("reactiveDefaults", DEFAULTS));
+    }
+}
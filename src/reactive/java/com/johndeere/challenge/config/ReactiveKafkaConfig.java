@@ -0,0 +1,63 @@
+package com.johndeere.challenge.config;
+
+import com.johndeere.challenge.model.Message;
+import lombok.AllArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * reactor-kafka counterparts of the producers and the inbound listener container of {@link KafkaConfig}.
+ * Topics, retry tiers and the dead letter topic are still handled by {@link KafkaConfig}.
+ */
+@Configuration
+@AllArgsConstructor
+public class ReactiveKafkaConfig {
+
+    private final KafkaProperties kafkaProperties;
+    private final KafkaConfig kafkaConfig;
+    private final ListenerConfig listenerConfig;
+    private final OutboundProducerConfig outboundProducerConfig;
+    private final IngestConfig ingestConfig;
+
+    @Bean
+    public ReceiverOptions<String, Message> inboundReceiverOptions() {
+        Map<String, Object> properties = kafkaProperties.buildConsumerProperties(null);
+        properties.put(ConsumerConfig.GROUP_ID_CONFIG, "johndeere");
+        return ReceiverOptions.<String, Message>create(properties)
+                .subscription(List.of("inbound_message_queue"));
+    }
+
+    /**
+     * Sender for the REST endpoints, configured by {@code spring.kafka.producer} only. A single
+     * upload never has more than {@code ingest.max-in-flight} records awaiting their ack.
+     */
+    @Bean(destroyMethod = "close")
+    public KafkaSender<String, Message> ingestKafkaSender() {
+        return KafkaSender.create(SenderOptions.<String, Message>create(kafkaProperties.buildProducerProperties(null))
+                .maxInFlight(ingestConfig.getMaxInFlight())
+                // A failed record is reported in its result instead of failing the whole upload
+                .stopOnError(false));
+    }
+
+    /**
+     * Sender for forwarding to {@code outbound_message_queue}, with the batching and idempotence
+     * settings of the outbound producer. Transactions are not supported.
+     */
+    @Bean(destroyMethod = "close")
+    public KafkaSender<String, Message> outboundKafkaSender() {
+        if (outboundProducerConfig.isTransactional() && listenerConfig.getMode() == ListenerConfig.Mode.REACTIVE) {
+            throw new IllegalStateException("outbound.transactional is not supported with listener.mode=reactive");
+        }
+        return KafkaSender.create(SenderOptions.<String, Message>create(kafkaConfig.outboundProducerProperties())
+                .maxInFlight(outboundProducerConfig.getMaxInFlight())
+                .stopOnError(false));
+    }
+}
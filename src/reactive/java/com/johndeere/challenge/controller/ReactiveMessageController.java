@@ -0,0 +1,59 @@
+package com.johndeere.challenge.controller;
+
+import com.johndeere.challenge.id.IdGenerator;
+import com.johndeere.challenge.kafka.ReactiveKafkaProducer;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.IngestResultDto;
+import com.johndeere.challenge.model.dto.MessageDto;
+import com.johndeere.challenge.service.IngestAdmission;
+import com.johndeere.challenge.service.ReactiveMessageIngestService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link MessageController}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor
+@RequestMapping("/api/messages")
+public class ReactiveMessageController {
+
+    private final ReactiveKafkaProducer kafkaProducer;
+    private final ReactiveMessageIngestService messageIngestService;
+    private final IngestAdmission admission;
+    private final IdGenerator idGenerator;
+
+    @PostMapping
+    public Mono<ResponseEntity<Message>> sendMessage(@RequestBody MessageDto messageDto,
+                                                     @RequestParam String topic) {
+        Message message = Message.builder()
+                .id(idGenerator.next())
+                .sessionGuid(messageDto.sessionGuid())
+                .sequenceNumber(messageDto.sequenceNumber())
+                .machineId(messageDto.machineId())
+                .data(messageDto.data())
+                .build();
+
+        admission.admit(message.machineId());
+        // Like MessageController, answers without waiting for the ack
+        kafkaProducer.send(message, topic)
+                .doFinally(signal -> admission.release())
+                .onErrorComplete()
+                .subscribe();
+        return Mono.just(ResponseEntity.ok(message));
+    }
+
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<List<IngestResultDto>>> sendMessages(@RequestBody Flux<MessageDto> body,
+                                                                    @RequestParam String topic) {
+        return messageIngestService.ingest(body, topic).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,46 @@
+package com.johndeere.challenge.controller;
+
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.MessagePageDto;
+import com.johndeere.challenge.service.ReactiveMessageService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Reactive counterpart of {@link SessionMessageController}.
+ */
+@Validated
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor
+@RequestMapping("/api/sessions")
+public class ReactiveSessionMessageController {
+
+    private final ReactiveMessageService messageService;
+
+    @GetMapping(path = "/{sessionGuid}/messages", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<MessagePageDto> getMessages(@PathVariable UUID sessionGuid,
+                                            @RequestParam(defaultValue = "0") @PositiveOrZero int after,
+                                            @RequestParam(defaultValue = "100") @Positive @Max(1000) int limit) {
+        return messageService.getMessagesPage(sessionGuid, after, limit);
+    }
+
+    /**
+     * Streams the whole session as newline-delimited JSON. Documents are only read from the cursor
+     * as fast as the client takes them.
+     */
+    @GetMapping(path = "/{sessionGuid}/messages", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Message> streamMessages(@PathVariable UUID sessionGuid) {
+        return messageService.streamMessages(sessionGuid);
+    }
+}
@@ -0,0 +1,117 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.ConditionalOnListenerMode;
+import com.johndeere.challenge.config.ListenerConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.metrics.PipelineMetrics.Outcome;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.ReactiveMessageService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * reactor-kafka counterpart of {@link KafkaBatchConsumer}.
+ * <p>
+ * Each of the {@code listener.concurrency} receivers handles one poll at a time: the checks of
+ * its messages overlap, the survivors are persisted with one bulk insert and forwarded as one
+ * micro-batch, and the offsets are acknowledged once the forwards are acknowledged. The next poll
+ * is only requested after that, so a slow Mongo or broker pauses the consumer rather than
+ * buffering records, and no thread waits in the meantime.
+ * <p>
+ * A failed poll is not acknowledged; the receiver is then recreated and receives it again.
+ */
+@Slf4j
+@Component
+@ConditionalOnListenerMode(ListenerConfig.Mode.REACTIVE)
+public class ReactiveKafkaConsumer {
+
+    private final ReceiverOptions<String, Message> receiverOptions;
+    private final ListenerConfig listenerConfig;
+    private final ReactiveMessageService service;
+    private final ReactiveOutboundForwarder forwarder;
+    private final RetryRouter retryRouter;
+    private final PipelineMetrics metrics;
+    private Disposable subscription;
+
+    public ReactiveKafkaConsumer(ReceiverOptions<String, Message> receiverOptions, ListenerConfig listenerConfig,
+                                 ReactiveMessageService service, ReactiveOutboundForwarder forwarder,
+                                 RetryRouter retryRouter, PipelineMetrics metrics) {
+        this.receiverOptions = receiverOptions;
+        this.listenerConfig = listenerConfig;
+        this.service = service;
+        this.forwarder = forwarder;
+        this.retryRouter = retryRouter;
+        this.metrics = metrics;
+    }
+
+    @PostConstruct
+    public void start() {
+        int concurrency = listenerConfig.getConcurrency();
+        subscription = Flux.range(0, concurrency)
+                .flatMap(receiver -> receive(), concurrency)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+    }
+
+    private Mono<Void> receive() {
+        return Flux.defer(() -> KafkaReceiver.create(receiverOptions).receiveBatch())
+                // Without prefetch, the next poll is only requested once this one is done
+                .concatMap(poll -> poll.collectList().flatMap(this::consume), 0)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofMinutes(1))
+                        .doBeforeRetry(signal -> log.warn("Recreating inbound receiver after: {}", signal.failure().toString())))
+                .then();
+    }
+
+    private Mono<Void> consume(List<ReceiverRecord<String, Message>> records) {
+        List<Message> messages = records.stream().map(ConsumerRecord::value).toList();
+        log.debug("Batch received: size={}", messages.size());
+
+        Set<Message> retried = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Mono<?>> routed = new ArrayList<>();
+        return service.consumeMessages(messages, (message, e) -> {
+                    retried.add(message);
+                    routed.add(route(message, e));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error processing batch of {} messages: {}", messages.size(), e.getMessage(), e);
+                    metrics.outcome(Outcome.ERROR, "batch", messages.size());
+                    Exception error = e instanceof Exception exception ? exception : new IllegalStateException(e);
+                    for (Message message : messages) {
+                        if (message != null && !retried.contains(message)) {
+                            routed.add(route(message, error));
+                        }
+                    }
+                    return Mono.empty();
+                })
+                .flatMap(forward -> forwarder.deliver(forward, 0, "authorized"))
+                // Routed messages must be on the broker before their offsets are acknowledged
+                .then(Mono.defer(() -> Mono.when(routed)))
+                .doOnSuccess(done -> records.forEach(record -> record.receiverOffset().acknowledge()));
+    }
+
+    private Mono<?> route(Message message, Exception e) {
+        return Mono.fromFuture(retryRouter.route(message, 0, e));
+    }
+}
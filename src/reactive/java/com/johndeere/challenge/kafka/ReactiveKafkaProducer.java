@@ -0,0 +1,75 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.TopicConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+
+/**
+ * reactor-kafka counterpart of {@link KafkaProducer#sendToKafka} for the reactive REST endpoints.
+ */
+@Slf4j
+@Component
+public class ReactiveKafkaProducer {
+
+    private final KafkaSender<String, Message> sender;
+    private final TopicConfig topicConfig;
+    private final PipelineMetrics metrics;
+
+    public ReactiveKafkaProducer(@Qualifier("ingestKafkaSender") KafkaSender<String, Message> sender,
+                                 TopicConfig topicConfig, PipelineMetrics metrics) {
+        this.sender = sender;
+        this.topicConfig = topicConfig;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sends the messages as they arrive. Messages are only requested from {@code messages} while
+     * fewer than {@code ingest.max-in-flight} of them wait for their ack, so a slow broker slows
+     * down reading the upload.
+     *
+     * @return one result per message, in the order of the acks
+     */
+    public <T> Flux<Sent<T>> send(Flux<Outgoing<T>> messages, String topic) {
+        MessageKeyStrategy keyStrategy = topicConfig.keyStrategyFor(topic);
+        return sender.send(messages.map(outgoing -> SenderRecord.create(
+                        new ProducerRecord<>(topic, keyStrategy.keyOf(outgoing.message()), outgoing.message()),
+                        new Pending<>(outgoing.correlation(), System.nanoTime()))))
+                .map(result -> {
+                    Pending<T> pending = result.correlationMetadata();
+                    metrics.send(topic, pending.start(), result.exception());
+                    if (result.exception() != null) {
+                        log.info(result.exception().toString());
+                    }
+                    return new Sent<>(pending.correlation(), result.exception());
+                });
+    }
+
+    /**
+     * @return completes when the broker acknowledged the message, or fails with the send's error
+     */
+    public Mono<Void> send(Message message, String topic) {
+        return send(Flux.just(new Outgoing<>(message, message.id())), topic)
+                .next()
+                .flatMap(sent -> sent.exception() == null ? Mono.<Void>empty() : Mono.error(sent.exception()));
+    }
+
+    public record Outgoing<T>(Message message, T correlation) {
+    }
+
+    /**
+     * @param exception null if the message was acknowledged
+     */
+    public record Sent<T>(T correlation, Exception exception) {
+    }
+
+    private record Pending<T>(T correlation, long start) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.OutboundProducerConfig;
+import com.johndeere.challenge.config.TopicConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.metrics.PipelineMetrics.Outcome;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.ReactiveMessageService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.KafkaException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * reactor-kafka counterpart of {@link OutboundForwarder#deliver}. The sender pulls records from
+ * the micro-batch only while fewer than {@code outbound.max-in-flight} are unacknowledged, so a
+ * slow broker holds back the consumer instead of filling the producer buffer.
+ */
+@Slf4j
+@Component
+public class ReactiveOutboundForwarder {
+
+    private final KafkaSender<String, Message> sender;
+    private final TopicConfig topicConfig;
+    private final OutboundProducerConfig config;
+    private final RetryRouter retryRouter;
+    private final ReactiveMessageService service;
+    private final PipelineMetrics metrics;
+
+    public ReactiveOutboundForwarder(@Qualifier("outboundKafkaSender") KafkaSender<String, Message> sender,
+                                     TopicConfig topicConfig, OutboundProducerConfig config, RetryRouter retryRouter,
+                                     ReactiveMessageService service, PipelineMetrics metrics) {
+        this.sender = sender;
+        this.topicConfig = topicConfig;
+        this.config = config;
+        this.retryRouter = retryRouter;
+        this.service = service;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Forwards the messages as one micro-batch and completes once all of them are acknowledged,
+     * failed, or {@code outbound.ack-timeout} has passed. Messages that were not acknowledged are
+     * sent to the retry tier after {@code attempt}, which only forwards them again.
+     *
+     * @param reason tag of the forwarded-message metric
+     * @return a {@link KafkaException} error if failed forwards could not be routed either; they
+     * have then been unpersisted, so their redelivery processes them again
+     */
+    public Mono<Void> deliver(List<Message> messages, int attempt, String reason) {
+        if (messages.isEmpty()) {
+            return Mono.empty();
+        }
+
+        // Whatever is not acknowledged in time counts as failed
+        AtomicReferenceArray<Exception> failures = new AtomicReferenceArray<>(messages.size());
+        TimeoutException timeout = new TimeoutException("Not acknowledged within " + config.getAckTimeout());
+        for (int i = 0; i < messages.size(); i++) {
+            failures.set(i, timeout);
+        }
+
+        Flux<SenderRecord<String, Message, Pending>> records = Flux.range(0, messages.size())
+                .map(i -> {
+                    Message message = messages.get(i);
+                    String key = topicConfig.keyStrategyFor(OutboundForwarder.TOPIC).keyOf(message);
+                    return SenderRecord.create(new ProducerRecord<>(OutboundForwarder.TOPIC, key, message),
+                            new Pending(i, System.nanoTime()));
+                });
+
+        return sender.send(records)
+                .doOnNext(result -> {
+                    Pending pending = result.correlationMetadata();
+                    Message message = messages.get(pending.index());
+                    metrics.send(OutboundForwarder.TOPIC, pending.start(), result.exception());
+                    if (result.exception() == null) {
+                        failures.set(pending.index(), null);
+                        metrics.outcome(Outcome.FORWARDED, reason);
+                        log.debug("Message forwarded to outbound queue: sessionGuid={}", message.sessionGuid());
+                    } else {
+                        failures.set(pending.index(), result.exception());
+                        log.warn("Failed to forward message with sessionGuid={}: {}",
+                                message.sessionGuid(), result.exception().toString());
+                    }
+                })
+                .then()
+                // e.g. the producer could not be created; the records without a result are routed
+                .onErrorResume(e -> {
+                    log.warn("Outbound send of {} messages failed: {}", messages.size(), e.toString());
+                    return Mono.empty();
+                })
+                .timeout(config.getAckTimeout(), Mono.empty())
+                .then(Mono.defer(() -> route(messages, failures, attempt)));
+    }
+
+    private Mono<Void> route(List<Message> messages, AtomicReferenceArray<Exception> failures, int attempt) {
+        List<Message> failed = new ArrayList<>();
+        List<Mono<?>> routed = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            Exception error = failures.get(i);
+            if (error != null) {
+                Message message = messages.get(i);
+                metrics.outcome(Outcome.ERROR, "forward");
+                failed.add(message);
+                routed.add(Mono.fromFuture(() -> retryRouter.routeForward(message, attempt, error)));
+            }
+        }
+        if (failed.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Mono.when(routed)
+                .onErrorResume(e -> {
+                    log.error("Cannot route {} failed forwards to a retry tier: {}", failed.size(), e.getMessage());
+                    return service.unpersist(failed)
+                            .then(Mono.error(new KafkaException("Failed to forward " + failed.size() + " messages", e)));
+                });
+    }
+
+    private record Pending(int index, long start) {
+    }
+}
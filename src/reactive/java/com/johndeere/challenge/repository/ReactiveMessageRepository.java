@@ -0,0 +1,22 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.Message;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link MessageRepository} over the same message collection.
+ */
+@Repository
+public interface ReactiveMessageRepository extends ReactiveMongoRepository<Message, UUID>, ReactiveMessageRepositoryCustom {
+
+    Flux<Message> findBySessionGuidAndSequenceNumberGreaterThanOrderBySequenceNumber(UUID sessionGuid,
+                                                                                     int sequenceNumber, Limit limit);
+
+    // Streamed from the cursor as the subscriber requests more, instead of being read into a list
+    Flux<Message> findBySessionGuidOrderBySequenceNumber(UUID sessionGuid);
+}
@@ -0,0 +1,17 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.Message;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveMessageRepositoryCustom {
+
+    /**
+     * Inserts all messages with a single unordered bulk write. A failing document does not
+     * abort the rest of the batch.
+     *
+     * @return the messages that were actually inserted
+     */
+    Mono<List<Message>> bulkInsert(List<Message> messages);
+}
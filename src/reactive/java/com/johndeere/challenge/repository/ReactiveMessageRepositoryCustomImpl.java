@@ -0,0 +1,47 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.Message;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.AllArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class ReactiveMessageRepositoryCustomImpl implements ReactiveMessageRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<List<Message>> bulkInsert(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class)
+                .insert(messages)
+                .execute()
+                .thenReturn(messages)
+                .onErrorResume(e -> writeErrors(e) != null,
+                        e -> Mono.just(MessageRepositoryCustomImpl.inserted(messages, writeErrors(e))));
+    }
+
+    /**
+     * @return the write errors of a partially failed bulk write, null for any other failure
+     */
+    private static List<BulkWriteError> writeErrors(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BulkOperationException e) {
+                return e.getErrors();
+            }
+            if (cause instanceof MongoBulkWriteException e) {
+                return e.getWriteErrors();
+            }
+        }
+        return null;
+    }
+}
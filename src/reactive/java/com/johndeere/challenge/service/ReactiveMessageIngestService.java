@@ -0,0 +1,98 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.id.IdGenerator;
+import com.johndeere.challenge.kafka.ReactiveKafkaProducer;
+import com.johndeere.challenge.kafka.ReactiveKafkaProducer.Outgoing;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.IngestResultDto;
+import com.johndeere.challenge.model.dto.MessageDto;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking counterpart of {@link MessageIngestService}.
+ * <p>
+ * Items are sent as WebFlux decodes them from the body, and {@link ReactiveKafkaProducer} only
+ * requests more while fewer than {@code ingest.max-in-flight} of them wait for their ack, so the
+ * upload is paced by the broker without holding a thread. Backpressure takes the place of the
+ * in-flight slots and of the producer buffer check. Validation and the per-machine rate limit
+ * are the same as for {@link MessageIngestService}; an item that cannot be decoded ends the upload.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class ReactiveMessageIngestService {
+
+    private final ReactiveKafkaProducer kafkaProducer;
+    private final MessageIngestService ingestService;
+    private final IngestAdmission admission;
+    private final IdGenerator idGenerator;
+
+    /**
+     * @return one result per item of the body, in order
+     */
+    public Mono<List<IngestResultDto>> ingest(Flux<MessageDto> body, String topic) {
+        List<IngestResultDto> results = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger decoded = new AtomicInteger();
+
+        Flux<Outgoing<Item>> outgoing = body
+                .map(messageDto -> new Indexed(decoded.getAndIncrement(), messageDto))
+                .onErrorResume(e -> {
+                    String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                    log.debug("Bulk ingest stopped at item {}: {}", decoded.get(), error);
+                    results.add(IngestResultDto.rejected(decoded.get(), error));
+                    return Mono.empty();
+                })
+                .<Outgoing<Item>>handle((item, sink) -> {
+                    String violations = ingestService.validate(item.messageDto());
+                    if (violations != null) {
+                        results.add(IngestResultDto.rejected(item.index(), violations));
+                        return;
+                    }
+                    try {
+                        admission.checkRate(item.messageDto().machineId());
+                    } catch (AdmissionRejectedException e) {
+                        results.add(IngestResultDto.throttled(item.index(), e.getMessage()));
+                        return;
+                    }
+
+                    Message message = Message.builder()
+                            .id(idGenerator.next())
+                            .sessionGuid(item.messageDto().sessionGuid())
+                            .sequenceNumber(item.messageDto().sequenceNumber())
+                            .machineId(item.messageDto().machineId())
+                            .data(item.messageDto().data())
+                            .build();
+                    sink.next(new Outgoing<>(message, new Item(item.index(), message.id())));
+                });
+
+        return kafkaProducer.send(outgoing, topic)
+                .doOnNext(sent -> results.add(sent.exception() == null
+                        ? IngestResultDto.acked(sent.correlation().index(), sent.correlation().id())
+                        : IngestResultDto.failed(sent.correlation().index(), sent.correlation().id(),
+                        String.valueOf(sent.exception().getMessage()))))
+                .then(Mono.fromSupplier(() -> {
+                    // Acks of different partitions arrive in any order
+                    List<IngestResultDto> ordered = new ArrayList<>(results);
+                    ordered.sort(Comparator.comparingInt(IngestResultDto::index));
+                    return ordered;
+                }));
+    }
+
+    private record Indexed(int index, MessageDto messageDto) {
+    }
+
+    private record Item(int index, UUID id) {
+    }
+}
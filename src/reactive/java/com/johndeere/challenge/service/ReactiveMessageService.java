@@ -0,0 +1,123 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.config.StorageConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.metrics.PipelineMetrics.Stage;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.MessagePageDto;
+import com.johndeere.challenge.repository.ReactiveMessageRepository;
+import com.johndeere.challenge.service.MessageChecks.Verdict;
+import com.johndeere.challenge.spool.MessageSpool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Non-blocking counterpart of the batch path and the session queries of {@link MessageService}.
+ * The checks and the bookkeeping are shared with {@link MessageService}; only waiting for the
+ * verdicts and the Mongo round trips are replaced by signals, so no thread is held while they
+ * are pending. Persists through {@link ReactiveMessageRepository}, which needs {@code storage.mode=document}.
+ */
+@Slf4j
+@Service
+public class ReactiveMessageService {
+
+    private final MessageService service;
+    private final ReactiveMessageRepository repository;
+    private final PipelineMetrics metrics;
+    private final MessageSpool spool;
+
+    public ReactiveMessageService(MessageService service, ReactiveMessageRepository repository,
+                                  PipelineMetrics metrics, MessageSpool spool, StorageConfig storageConfig) {
+        if (storageConfig.getMode() != StorageConfig.Mode.DOCUMENT) {
+            throw new IllegalStateException("The reactive build only supports storage.mode=document");
+        }
+        this.service = service;
+        this.repository = repository;
+        this.metrics = metrics;
+        this.spool = spool;
+    }
+
+    /**
+     * Counterpart of {@link MessageService#consumeMessages(List, BiConsumer)}.
+     *
+     * @return the persisted messages, in input order, that should be forwarded
+     */
+    public Mono<List<Message>> consumeMessages(List<Message> messages, BiConsumer<Message, Exception> transientFailures) {
+        long checksStart = System.nanoTime();
+        List<CompletableFuture<Verdict>> verdicts = service.evaluate(messages);
+        CompletableFuture<Void> done = CompletableFuture.allOf(verdicts.stream()
+                .filter(verdict -> verdict != null)
+                .toArray(CompletableFuture[]::new));
+
+        // Failed verdicts are handled per message once all of them are known
+        return Mono.fromFuture(done)
+                .onErrorComplete()
+                .then(Mono.fromSupplier(() -> service.accept(messages, verdicts, checksStart, transientFailures)))
+                .flatMap(accepted -> {
+                    long persistStart = System.nanoTime();
+                    return bulkInsert(accepted).doOnNext(persisted -> {
+                        metrics.record(Stage.BULK_PERSIST, persistStart);
+                        service.persisted(messages.size(), accepted, persisted);
+                    });
+                });
+    }
+
+    private Mono<List<Message>> bulkInsert(List<Message> messages) {
+        if (spool.isActive()) {
+            return spoolAll(messages).map(spooled -> {
+                if (!spooled) {
+                    throw new DataAccessResourceFailureException("Spool is full, cannot persist batch of " + messages.size() + " messages");
+                }
+                return messages;
+            });
+        }
+
+        return repository.bulkInsert(messages)
+                .onErrorResume(FailureClassifier::isTransient, e -> spoolAll(messages).flatMap(spooled -> {
+                    if (!spooled) {
+                        return Mono.error(e);
+                    }
+                    log.warn("Mongo unavailable, spooled batch of {} messages: {}", messages.size(), e.getMessage());
+                    return Mono.just(messages);
+                }));
+    }
+
+    // Appending may force the segment to disk, so it stays off the event loop
+    private Mono<Boolean> spoolAll(List<Message> messages) {
+        return Mono.fromCallable(() -> service.spoolAll(messages))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Counterpart of {@link MessageService#unpersist(List)}.
+     */
+    public Mono<Void> unpersist(List<Message> messages) {
+        return repository.deleteAllById(messages.stream().map(Message::id).toList())
+                .doOnSuccess(done -> service.forget(messages));
+    }
+
+    public Mono<MessagePageDto> getMessagesPage(UUID sessionGuid, int afterSequenceNumber, int limit) {
+        return repository.findBySessionGuidAndSequenceNumberGreaterThanOrderBySequenceNumber(
+                        sessionGuid, afterSequenceNumber, Limit.of(limit))
+                .collectList()
+                .map(messages -> new MessagePageDto(messages,
+                        messages.size() < limit ? null : messages.getLast().sequenceNumber()));
+    }
+
+    /**
+     * @return the messages of the session in sequence order, read from the cursor as they are requested
+     */
+    public Flux<Message> streamMessages(UUID sessionGuid) {
+        return repository.findBySessionGuidOrderBySequenceNumber(sessionGuid);
+    }
+}
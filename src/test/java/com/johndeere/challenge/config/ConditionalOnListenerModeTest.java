@@ -0,0 +1,65 @@
+package com.johndeere.challenge.config;
+
+import com.johndeere.challenge.kafka.KafkaBatchConsumer;
+import com.johndeere.challenge.kafka.KafkaConsumer;
+import com.johndeere.challenge.kafka.KafkaVirtualThreadConsumer;
+import com.johndeere.challenge.kafka.OutboundForwarder;
+import com.johndeere.challenge.kafka.RetryRouter;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.service.MessageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ConditionalOnListenerModeTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(KafkaConsumer.class, KafkaBatchConsumer.class, KafkaVirtualThreadConsumer.class)
+            .withBean(MessageService.class, () -> mock(MessageService.class))
+            .withBean(OutboundForwarder.class, () -> mock(OutboundForwarder.class))
+            .withBean(RetryRouter.class, () -> mock(RetryRouter.class))
+            .withBean(PipelineMetrics.class, () -> mock(PipelineMetrics.class));
+
+    @Test
+    void listener_NoMode_RegistersRecordListener() {
+
+        contextRunner.run(context -> assertEquals(Set.of(KafkaConsumer.class), listeners(context)));
+    }
+
+    @Test
+    void listener_ModeInEnumSpelling_RegistersIt() {
+
+        contextRunner.withPropertyValues("listener.mode=BATCH")
+                .run(context -> assertEquals(Set.of(KafkaBatchConsumer.class), listeners(context)));
+        contextRunner.withPropertyValues("listener.mode=Virtual")
+                .run(context -> assertEquals(Set.of(KafkaVirtualThreadConsumer.class), listeners(context)));
+    }
+
+    @Test
+    void listener_ModeInLowerCase_RegistersIt() {
+
+        contextRunner.withPropertyValues("listener.mode=batch")
+                .run(context -> assertEquals(Set.of(KafkaBatchConsumer.class), listeners(context)));
+        contextRunner.withPropertyValues("listener.mode=record")
+                .run(context -> assertEquals(Set.of(KafkaConsumer.class), listeners(context)));
+    }
+
+    @Test
+    void listener_ReactiveMode_RegistersNoListenerContainerConsumer() {
+
+        contextRunner.withPropertyValues("listener.mode=REACTIVE")
+                .run(context -> assertEquals(Set.of(), listeners(context)));
+    }
+
+    private static Set<Class<?>> listeners(ApplicationContext context) {
+        return Set.of(KafkaConsumer.class, KafkaBatchConsumer.class, KafkaVirtualThreadConsumer.class).stream()
+                .filter(type -> !context.getBeansOfType(type).isEmpty())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,41 @@
+package com.johndeere.challenge.config;
+
+import com.johndeere.challenge.id.RandomIdGenerator;
+import com.johndeere.challenge.id.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+            .withUserConfiguration(IdConfig.class, IdGeneratorConfig.class);
+
+    @Test
+    void idGenerator_NoStrategy_UsesUuidV7() {
+
+        contextRunner.run(context -> assertInstanceOf(UuidV7Generator.class, context.getBean("idGenerator")));
+    }
+
+    @Test
+    void idGenerator_StrategyInEnumSpelling_SelectsIt() {
+
+        contextRunner.withPropertyValues("id.strategy=UUID_V7")
+                .run(context -> assertInstanceOf(UuidV7Generator.class, context.getBean("idGenerator")));
+        contextRunner.withPropertyValues("id.strategy=Random")
+                .run(context -> assertInstanceOf(RandomIdGenerator.class, context.getBean("idGenerator")));
+    }
+
+    @Test
+    void idGenerator_StrategyInKebabCase_SelectsIt() {
+
+        contextRunner.withPropertyValues("id.strategy=uuid-v7")
+                .run(context -> assertInstanceOf(UuidV7Generator.class, context.getBean("idGenerator")));
+        contextRunner.withPropertyValues("id.strategy=random")
+                .run(context -> assertInstanceOf(RandomIdGenerator.class, context.getBean("idGenerator")));
+    }
+}
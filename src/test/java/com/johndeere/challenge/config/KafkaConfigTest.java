@@ -0,0 +1,53 @@
+package com.johndeere.challenge.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaConfigTest {
+
+    @Mock
+    private ObjectProvider<DefaultKafkaConsumerFactoryCustomizer> consumerFactoryCustomizers;
+
+    @Mock
+    private ObjectProvider<DefaultKafkaProducerFactoryCustomizer> producerFactoryCustomizers;
+
+    private OutboundProducerConfig outboundProducerConfig;
+    private KafkaConfig kafkaConfig;
+
+    @BeforeEach
+    void setUp() {
+        outboundProducerConfig = new OutboundProducerConfig();
+        kafkaConfig = new KafkaConfig(new KafkaProperties(), new ListenerConfig(), new TopicConfig(),
+                outboundProducerConfig, new RetryConfig(), consumerFactoryCustomizers, producerFactoryCustomizers);
+    }
+
+    @Test
+    void retryListenerContainerFactory_Transactional_JoinsOutboundTransaction() {
+        outboundProducerConfig.setTransactional(true);
+
+        var transactionManager = kafkaConfig.retryListenerContainerFactory()
+                .getContainerProperties().getKafkaAwareTransactionManager();
+
+        assertInstanceOf(KafkaTransactionManager.class, transactionManager);
+        assertTrue(transactionManager.getProducerFactory().transactionCapable());
+    }
+
+    @Test
+    void retryListenerContainerFactory_NotTransactional_HasNoTransactionManager() {
+
+        var containerProperties = kafkaConfig.retryListenerContainerFactory().getContainerProperties();
+
+        assertNull(containerProperties.getKafkaAwareTransactionManager());
+    }
+}
@@ -0,0 +1,39 @@
+package com.johndeere.challenge.config;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ClassUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class ListenerConfigTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void validate_ReactiveModeWithoutReactiveBuild_Fails() {
+        assumeFalse(ClassUtils.isPresent(ListenerConfig.REACTIVE_CONSUMER, getClass().getClassLoader()));
+        ListenerConfig config = new ListenerConfig();
+        config.setMode(ListenerConfig.Mode.REACTIVE);
+
+        Set<ConstraintViolation<ListenerConfig>> violations = validator.validate(config);
+
+        assertEquals(1, violations.size());
+        assertEquals("modeAvailable", violations.iterator().next().getPropertyPath().toString());
+    }
+
+    @Test
+    void validate_BatchMode_Passes() {
+        ListenerConfig config = new ListenerConfig();
+        config.setMode(ListenerConfig.Mode.BATCH);
+
+        Set<ConstraintViolation<ListenerConfig>> violations = validator.validate(config);
+
+        assertTrue(violations.isEmpty());
+    }
+}
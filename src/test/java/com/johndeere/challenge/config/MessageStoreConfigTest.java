@@ -0,0 +1,67 @@
+package com.johndeere.challenge.config;
+
+import com.johndeere.challenge.controller.MachineMessageController;
+import com.johndeere.challenge.repository.DocumentMessageStore;
+import com.johndeere.challenge.repository.MessageRepository;
+import com.johndeere.challenge.repository.TimeSeriesMessageRepository;
+import com.johndeere.challenge.repository.TimeSeriesMessageStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MessageStoreConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+            .withUserConfiguration(StorageConfig.class, MessageStoreConfig.class, MachineMessageController.class)
+            .withBean(MessageRepository.class, () -> mock(MessageRepository.class))
+            .withBean(TimeSeriesMessageRepository.class, () -> mock(TimeSeriesMessageRepository.class))
+            .withBean(MongoTemplate.class, MessageStoreConfigTest::mongoTemplate);
+
+    @Test
+    void messageStore_NoMode_UsesDocumentStoreWithoutMachineQueries() {
+
+        contextRunner.run(context -> {
+            assertInstanceOf(DocumentMessageStore.class, context.getBean("messageStore"));
+            assertTrue(context.getBeansOfType(MachineMessageController.class).isEmpty());
+        });
+    }
+
+    @Test
+    void messageStore_ModeInEnumSpelling_SelectsIt() {
+
+        contextRunner.withPropertyValues("storage.mode=TIME_SERIES")
+                .run(context -> {
+                    assertInstanceOf(TimeSeriesMessageStore.class, context.getBean("messageStore"));
+                    assertNotNull(context.getBean(MachineMessageController.class));
+                });
+        contextRunner.withPropertyValues("storage.mode=Document")
+                .run(context -> assertInstanceOf(DocumentMessageStore.class, context.getBean("messageStore")));
+    }
+
+    @Test
+    void messageStore_ModeInKebabOrSnakeCase_SelectsIt() {
+
+        contextRunner.withPropertyValues("storage.mode=time-series")
+                .run(context -> {
+                    assertInstanceOf(TimeSeriesMessageStore.class, context.getBean("messageStore"));
+                    assertNotNull(context.getBean(MachineMessageController.class));
+                });
+        contextRunner.withPropertyValues("storage.mode=time_series")
+                .run(context -> assertInstanceOf(TimeSeriesMessageStore.class, context.getBean("messageStore")));
+    }
+
+    private static MongoTemplate mongoTemplate() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(mock(IndexOperations.class));
+        return mongoTemplate;
+    }
+}
@@ -0,0 +1,47 @@
+package com.johndeere.challenge.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    private final UuidV7Generator generator = new UuidV7Generator();
+
+    @Test
+    void next_ReturnsVersion7WithRfcVariant() {
+
+        UUID id = generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void next_ManyIdsInSameMillisecond_StrictlyIncreasingAsUnsignedBytes() {
+
+        UUID previous = generator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID id = generator.next();
+            // Mongo compares binary UUIDs byte by byte, i.e. as unsigned most significant bits first
+            assertTrue(Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                    () -> id + " should sort after " + previous);
+            assertNotEquals(previous, id);
+        }
+    }
+
+    @Test
+    void timestampOf_ReturnsCreationTime() {
+        Instant before = Instant.now();
+
+        Instant timestamp = UuidV7Generator.timestampOf(generator.next());
+
+        assertFalse(timestamp.isBefore(before.minusMillis(1)));
+        assertTrue(Duration.between(before, timestamp).toSeconds() < 2);
+        assertThrows(IllegalArgumentException.class, () -> UuidV7Generator.timestampOf(UUID.randomUUID()));
+    }
+}
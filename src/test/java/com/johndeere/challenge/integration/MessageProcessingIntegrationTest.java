@@ -83,13 +83,11 @@ class MessageProcessingIntegrationTest {
                 .data(List.of(
                         MessageData.builder()
                                 .type(MessageDataType.DISTANCE)
-                                .unit("m")
-                                .value("200")
+                                .value(200)
                                 .build(),
                         MessageData.builder()
                                 .type(MessageDataType.WORKED_SURFACE)
-                                .unit("m2")
-                                .value("500")
+                                .value(500)
                                 .build()
                 ))
                 .build();
@@ -118,8 +116,7 @@ class MessageProcessingIntegrationTest {
                 .data(List.of(
                         MessageData.builder()
                                 .type(MessageDataType.DISTANCE)
-                                .unit("m")
-                                .value("100")
+                                .value(100)
                                 .build()
                 ))
                 .build();
@@ -151,8 +148,7 @@ class MessageProcessingIntegrationTest {
                 .data(List.of(
                         MessageData.builder()
                                 .type(MessageDataType.DISTANCE)
-                                .unit("m")
-                                .value("200")
+                                .value(200)
                                 .build()
                 ))
                 .build();
@@ -187,8 +183,7 @@ class MessageProcessingIntegrationTest {
                 .data(List.of(
                         MessageData.builder()
                                 .type(MessageDataType.DISTANCE)
-                                .unit("m")
-                                .value("200")
+                                .value(200)
                                 .build()
                 ))
                 .build();
@@ -0,0 +1,121 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.RetryConfig;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.MessageService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpoint;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.AcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaRetryConsumerTest {
+
+    @Mock
+    private MessageService service;
+
+    @Mock
+    private OutboundForwarder forwarder;
+
+    @Mock
+    private RetryRouter retryRouter;
+
+    @Mock
+    private ConsumerFactory<String, Message> consumerFactory;
+
+    @Mock
+    private KafkaListenerEndpointRegistrar registrar;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private ConcurrentKafkaListenerContainerFactory<String, Message> containerFactory;
+    private KafkaRetryConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        containerFactory = new ConcurrentKafkaListenerContainerFactory<>();
+        containerFactory.setConsumerFactory(consumerFactory);
+        containerFactory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        consumer = new KafkaRetryConsumer(service, forwarder, retryRouter, new RetryConfig(), containerFactory);
+    }
+
+    @Test
+    void configureKafkaListeners_RegistersOneContainerPerTier() {
+
+        List<KafkaListenerEndpoint> endpoints = registeredEndpoints();
+
+        assertEquals(List.of(List.of("inbound_message_queue-retry-0"), List.of("inbound_message_queue-retry-1"),
+                        List.of("inbound_message_queue-retry-2")),
+                endpoints.stream().map(endpoint -> List.copyOf(endpoint.getTopics())).toList());
+        assertTrue(endpoints.stream().allMatch(endpoint -> "johndeere".equals(endpoint.getGroupId())));
+    }
+
+    @Test
+    void consume_RecordNotDue_NacksUntilDue() {
+        ConsumerRecord<String, Message> record = record(System.currentTimeMillis() + 60_000);
+
+        listener(registeredEndpoints().getFirst()).onMessage(record, ack, null);
+
+        verify(ack).nack(argThat((Duration wait) -> wait.toSeconds() > 50));
+        verifyNoInteractions(service, forwarder);
+    }
+
+    @Test
+    void consume_RecordDue_ProcessesAndForwards() {
+        ConsumerRecord<String, Message> record = record(System.currentTimeMillis() - 1);
+        when(service.consumeMessage(record.value())).thenReturn(true);
+
+        listener(registeredEndpoints().getFirst()).onMessage(record, ack, null);
+
+        verify(forwarder).deliver(eq(List.of(record.value())), anyInt(), eq("retried"));
+        verify(ack).acknowledge();
+    }
+
+    private List<KafkaListenerEndpoint> registeredEndpoints() {
+        consumer.configureKafkaListeners(registrar);
+        ArgumentCaptor<KafkaListenerEndpoint> endpoints = ArgumentCaptor.forClass(KafkaListenerEndpoint.class);
+        verify(registrar, atLeastOnce()).registerEndpoint(endpoints.capture(), eq(containerFactory));
+        return endpoints.getAllValues();
+    }
+
+    @SuppressWarnings("unchecked")
+    private AcknowledgingConsumerAwareMessageListener<String, Message> listener(KafkaListenerEndpoint endpoint) {
+        return (AcknowledgingConsumerAwareMessageListener<String, Message>)
+                containerFactory.createListenerContainer(endpoint).getContainerProperties().getMessageListener();
+    }
+
+    private static ConsumerRecord<String, Message> record(long dueAt) {
+        Message message = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(UUID.randomUUID())
+                .sequenceNumber(1)
+                .machineId(1)
+                .data(List.of())
+                .build();
+        ConsumerRecord<String, Message> record =
+                new ConsumerRecord<>("inbound_message_queue-retry-0", 0, 0, message.sessionGuid().toString(), message);
+        record.headers().add(RetryRouter.DUE_AT_HEADER, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
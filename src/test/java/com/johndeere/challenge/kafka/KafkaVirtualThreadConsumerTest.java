@@ -0,0 +1,88 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.MessageService;
+import org.apache.kafka.common.errors.NetworkException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.KafkaException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaVirtualThreadConsumerTest {
+
+    @Mock
+    private MessageService service;
+
+    @Mock
+    private OutboundForwarder forwarder;
+
+    @Mock
+    private RetryRouter retryRouter;
+
+    private KafkaVirtualThreadConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new KafkaVirtualThreadConsumer(service, forwarder, retryRouter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+    }
+
+    @Test
+    void consume_AllLanesSucceed_ForwardsEveryLane() throws InterruptedException {
+        Message first = message(UUID.randomUUID(), 1);
+        Message second = message(UUID.randomUUID(), 1);
+        when(service.consumeMessage(any())).thenReturn(true);
+
+        consumer.consume(List.of(first, second));
+
+        verify(forwarder).deliver(List.of(first, second), 0, "authorized");
+        verify(service, never()).unpersist(any());
+    }
+
+    @Test
+    void consume_LaneCannotRouteFailure_UnpersistsThatLaneAndFailsPoll() {
+        UUID failingSession = UUID.randomUUID();
+        Message persisted = message(failingSession, 1);
+        Message failing = message(failingSession, 2);
+        Message other = message(UUID.randomUUID(), 1);
+        DataAccessResourceFailureException error = new DataAccessResourceFailureException("Mongo down");
+        when(service.consumeMessage(persisted)).thenReturn(true);
+        when(service.consumeMessage(failing)).thenThrow(error);
+        when(service.consumeMessage(other)).thenReturn(true);
+        when(retryRouter.route(eq(failing), eq(0), eq(error)))
+                .thenReturn(CompletableFuture.failedFuture(new NetworkException("Broker unavailable")));
+
+        assertThrows(KafkaException.class, () -> consumer.consume(List.of(persisted, failing, other)));
+
+        verify(service).unpersist(List.of(persisted));
+        verify(forwarder).deliver(List.of(other), 0, "authorized");
+    }
+
+    private static Message message(UUID sessionGuid, int sequenceNumber) {
+        return Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(sessionGuid)
+                .sequenceNumber(sequenceNumber)
+                .machineId(1)
+                .data(List.of())
+                .build();
+    }
+}
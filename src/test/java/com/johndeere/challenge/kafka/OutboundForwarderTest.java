@@ -0,0 +1,116 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.OutboundProducerConfig;
+import com.johndeere.challenge.config.TopicConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.MessageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.NetworkException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboundForwarderTest {
+
+    @Mock
+    private KafkaTemplate<String, Message> kafkaTemplate;
+
+    @Mock
+    private RetryRouter retryRouter;
+
+    @Mock
+    private MessageService service;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private OutboundForwarder forwarder;
+    private Message delivered;
+    private Message failed;
+
+    @BeforeEach
+    void setUp() {
+        forwarder = new OutboundForwarder(kafkaTemplate, new TopicConfig(), new OutboundProducerConfig(),
+                retryRouter, service, new PipelineMetrics(registry));
+        delivered = message(1);
+        failed = message(2);
+    }
+
+    @Test
+    void deliver_FailedForward_RoutedToRetryTierForForwardingOnly() {
+        stubSends();
+        when(retryRouter.routeForward(eq(failed), eq(0), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        forwarder.deliver(List.of(delivered, failed), 0, "authorized");
+
+        verify(kafkaTemplate).flush();
+        verify(retryRouter).routeForward(eq(failed), eq(0), any(NetworkException.class));
+        verify(retryRouter, never()).routeForward(eq(delivered), anyInt(), any());
+        verifyNoInteractions(service);
+        assertEquals(0.0, registry.get("outbound.in-flight").gauge().value());
+    }
+
+    @Test
+    void deliver_RoutingFails_UnpersistsFailedForwardsAndThrows() {
+        stubSends();
+        when(retryRouter.routeForward(eq(failed), eq(0), any()))
+                .thenReturn(CompletableFuture.failedFuture(new NetworkException("Broker unavailable")));
+
+        assertThrows(KafkaException.class, () -> forwarder.deliver(List.of(delivered, failed), 0, "authorized"));
+
+        verify(service).unpersist(List.of(failed));
+    }
+
+    @Test
+    void deliver_NoRoomAmongInFlightForwards_WaitsOnceForWholeBatch() {
+        OutboundProducerConfig config = new OutboundProducerConfig();
+        config.setMaxInFlight(1);
+        config.setAckTimeout(Duration.ofMillis(300));
+        forwarder = new OutboundForwarder(kafkaTemplate, new TopicConfig(), config,
+                retryRouter, service, new PipelineMetrics(registry));
+        when(kafkaTemplate.send(anyString(), anyString(), any(Message.class))).thenReturn(new CompletableFuture<>());
+        when(retryRouter.routeForward(any(), eq(0), any())).thenReturn(CompletableFuture.completedFuture(null));
+        long start = System.nanoTime();
+
+        forwarder.deliver(List.of(message(1), message(2), message(3)), 0, "authorized");
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 600);
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(Message.class));
+        verify(retryRouter, times(3)).routeForward(any(), eq(0), any(TimeoutException.class));
+    }
+
+    private void stubSends() {
+        when(kafkaTemplate.send(anyString(), anyString(), eq(delivered)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(anyString(), anyString(), eq(failed)))
+                .thenReturn(CompletableFuture.failedFuture(new NetworkException("Broker unavailable")));
+    }
+
+    private static Message message(int sequenceNumber) {
+        return Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(UUID.randomUUID())
+                .sequenceNumber(sequenceNumber)
+                .machineId(1)
+                .data(List.of())
+                .build();
+    }
+}
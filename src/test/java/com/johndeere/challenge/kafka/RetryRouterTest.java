@@ -0,0 +1,99 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.RetryConfig;
+import com.johndeere.challenge.config.TopicConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetryRouterTest {
+
+    @Mock
+    private KafkaTemplate<String, Message> kafkaTemplate;
+
+    private RetryConfig retryConfig;
+    private RetryRouter retryRouter;
+    private Message message;
+
+    @BeforeEach
+    void setUp() {
+        retryConfig = new RetryConfig();
+        retryRouter = new RetryRouter(kafkaTemplate, retryConfig, new TopicConfig(),
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        message = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(UUID.randomUUID())
+                .sequenceNumber(1)
+                .machineId(1)
+                .data(List.of())
+                .build();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+    }
+
+    @Test
+    void route_TransientFailure_SendsToNextTierWithDelay() {
+        long before = System.currentTimeMillis();
+
+        retryRouter.route(message, 1, new ResourceAccessException("Connection refused"));
+
+        ProducerRecord<String, Message> record = sent();
+        assertEquals("inbound_message_queue-retry-1", record.topic());
+        assertEquals(message.sessionGuid().toString(), record.key());
+        assertEquals(2, RetryRouter.attempt(record.headers()));
+        assertTrue(RetryRouter.dueAt(record.headers()) >= before + Duration.ofSeconds(5).toMillis());
+    }
+
+    @Test
+    void route_TransientFailureOutOfRetries_SendsToDeadLetterTopic() {
+
+        retryRouter.route(message, retryConfig.getAttempts(), new ResourceAccessException("Connection refused"));
+
+        assertEquals("inbound_message_queue-dlt", sent().topic());
+    }
+
+    @Test
+    void route_PermanentFailure_SendsToDeadLetterTopic() {
+
+        retryRouter.route(message, 0, new IllegalArgumentException("Bad message"));
+
+        ProducerRecord<String, Message> record = sent();
+        assertEquals("inbound_message_queue-dlt", record.topic());
+        assertEquals(0, RetryRouter.attempt(record.headers()));
+    }
+
+    @Test
+    void routeForward_TransientFailure_MarksRecordForwardOnly() {
+
+        retryRouter.routeForward(message, 0, new ResourceAccessException("Connection refused"));
+
+        ProducerRecord<String, Message> record = sent();
+        assertEquals("inbound_message_queue-retry-0", record.topic());
+        assertTrue(RetryRouter.isForwardOnly(record.headers()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, Message> sent() {
+        ArgumentCaptor<ProducerRecord<String, Message>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,88 @@
+package com.johndeere.challenge.kafka;
+
+import com.johndeere.challenge.config.OutboundProducerConfig;
+import com.johndeere.challenge.config.TopicConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.service.MessageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Forwards with {@code outbound.transactional} set, as made from a listener container that runs
+ * each delivery in a {@link KafkaTransactionManager} transaction.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionalForwardTest {
+
+    @Mock
+    private RetryRouter retryRouter;
+
+    @Mock
+    private MessageService service;
+
+    private final List<MockProducer<String, Message>> producers = new ArrayList<>();
+    private MockProducerFactory<String, Message> producerFactory;
+    private OutboundForwarder forwarder;
+
+    @BeforeEach
+    void setUp() {
+        producerFactory = new MockProducerFactory<>((transactional, transactionId) -> {
+            MockProducer<String, Message> producer =
+                    new MockProducer<>(true, null, new StringSerializer(), (topic, message) -> new byte[0]);
+            producer.initTransactions();
+            producers.add(producer);
+            return producer;
+        }, "challenge-outbound-");
+        OutboundProducerConfig config = new OutboundProducerConfig();
+        config.setTransactional(true);
+        forwarder = new OutboundForwarder(new KafkaTemplate<>(producerFactory), new TopicConfig(), config,
+                retryRouter, service, new PipelineMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void deliver_InsideListenerTransaction_CommitsForwards() {
+        Message message = message(1);
+        TransactionTemplate transaction = new TransactionTemplate(new KafkaTransactionManager<>(producerFactory));
+
+        transaction.executeWithoutResult(status -> forwarder.deliver(List.of(message), 1, "retried"));
+
+        MockProducer<String, Message> producer = producers.getFirst();
+        assertTrue(producer.transactionCommitted());
+        assertEquals(List.of(message), producer.history().stream().map(record -> record.value()).toList());
+        verifyNoInteractions(retryRouter, service);
+    }
+
+    @Test
+    void deliver_OutsideTransaction_Throws() {
+
+        assertThrows(IllegalStateException.class, () -> forwarder.deliver(List.of(message(1)), 1, "retried"));
+    }
+
+    private static Message message(int sequenceNumber) {
+        return Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(UUID.randomUUID())
+                .sequenceNumber(sequenceNumber)
+                .machineId(1)
+                .data(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.johndeere.challenge.kafka.serde;
+
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageSerdeTest {
+
+    private Message message;
+    private final MessageDeserializer deserializer = new MessageDeserializer();
+
+    @BeforeEach
+    void setUp() {
+        message = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(UUID.randomUUID())
+                .sequenceNumber(42)
+                .machineId(7)
+                .data(List.of(
+                        MessageData.builder()
+                                .type(MessageDataType.DISTANCE)
+                                .value(100.5)
+                                .build(),
+                        MessageData.builder()
+                                .type(MessageDataType.WORKED_SURFACE)
+                                .value(600)
+                                .build()
+                ))
+                .build();
+    }
+
+    @Test
+    void binaryFormat_RoundTripsAndAnnouncesContentType() {
+
+        RecordHeaders headers = new RecordHeaders();
+        byte[] bytes = serializer("binary").serialize("topic", headers, message);
+
+        assertEquals(MessageFormat.BINARY.contentType(),
+                new String(headers.lastHeader(MessageFormat.HEADER).value(), StandardCharsets.US_ASCII));
+        assertEquals(62, bytes.length);
+        assertEquals(message, deserializer.deserialize("topic", headers, bytes));
+    }
+
+    @Test
+    void jsonFormat_RoundTrips() {
+
+        RecordHeaders headers = new RecordHeaders();
+        byte[] bytes = serializer("json").serialize("topic", headers, message);
+
+        assertEquals(MessageFormat.JSON.contentType(),
+                new String(headers.lastHeader(MessageFormat.HEADER).value(), StandardCharsets.US_ASCII));
+        assertEquals(message, deserializer.deserialize("topic", headers, bytes));
+    }
+
+    @Test
+    void deserialize_NoContentTypeHeader_ReadsLegacyJson() {
+
+        String legacy = "{\"id\":\"" + message.id() + "\",\"sessionGuid\":\"" + message.sessionGuid() + "\","
+                + "\"sequenceNumber\":42,\"machineId\":7,"
+                + "\"data\":[{\"type\":\"DISTANCE\",\"unit\":\"m\",\"value\":\"100.5\"},"
+                + "{\"type\":\"WORKED_SURFACE\",\"unit\":\"m2\",\"value\":\"600\"}]}";
+
+        Message result = deserializer.deserialize("topic", new RecordHeaders(),
+                legacy.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(message, result);
+    }
+
+    @Test
+    void deserialize_TruncatedBinary_Fails() {
+
+        RecordHeaders headers = new RecordHeaders();
+        byte[] bytes = serializer("binary").serialize("topic", headers, message);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("topic", headers, truncated));
+    }
+
+    private static MessageSerializer serializer(String format) {
+        MessageSerializer serializer = new MessageSerializer();
+        serializer.configure(Map.of(MessageSerializer.FORMAT_CONFIG, format), false);
+        return serializer;
+    }
+}
@@ -0,0 +1,79 @@
+package com.johndeere.challenge.loadtest;
+
+import com.johndeere.challenge.id.IdGenerator;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic stream of messages for a {@link LoadProfile}: machines take turns, each running
+ * sessions of {@code sessionLength} consecutive sequence numbers, and a {@code duplicateRatio}
+ * share of the sends repeats the machine's previous message under a new id.
+ */
+final class LoadGenerator {
+
+    record Generated(Message message, boolean duplicate) {
+    }
+
+    private final LoadProfile profile;
+    private final IdGenerator ids;
+    private final Random random;
+    private final UUID[] sessions;
+    private final int[] sequences;
+    private final Message[] lastSent;
+    private int next;
+
+    LoadGenerator(LoadProfile profile, IdGenerator ids, long seed) {
+        this.profile = profile;
+        this.ids = ids;
+        this.random = new Random(seed);
+        this.sessions = new UUID[profile.machines()];
+        this.sequences = new int[profile.machines()];
+        this.lastSent = new Message[profile.machines()];
+    }
+
+    Generated next() {
+        int machine = next++ % profile.machines();
+
+        Message previous = lastSent[machine];
+        if (previous != null && random.nextDouble() < profile.duplicateRatio()) {
+            return new Generated(Message.builder()
+                    .id(ids.next())
+                    .sessionGuid(previous.sessionGuid())
+                    .sequenceNumber(previous.sequenceNumber())
+                    .machineId(previous.machineId())
+                    .data(previous.data())
+                    .build(), true);
+        }
+
+        if (sessions[machine] == null || sequences[machine] == profile.sessionLength()) {
+            sessions[machine] = new UUID(random.nextLong(), random.nextLong());
+            sequences[machine] = 0;
+        }
+        Message message = Message.builder()
+                .id(ids.next())
+                .sessionGuid(sessions[machine])
+                .sequenceNumber(++sequences[machine])
+                .machineId(machine + 1)
+                .data(List.of(
+                        MessageData.builder()
+                                .type(MessageDataType.DISTANCE)
+                                .value(random.nextDouble() * 1_000)
+                                .build(),
+                        MessageData.builder()
+                                .type(MessageDataType.WORKED_SURFACE)
+                                .value(random.nextDouble() * 10_000)
+                                .build()))
+                .build();
+        lastSent[machine] = message;
+        return new Generated(message, false);
+    }
+
+    static String key(Message message) {
+        return message.sessionGuid() + ":" + message.sequenceNumber();
+    }
+}
@@ -0,0 +1,29 @@
+package com.johndeere.challenge.loadtest;
+
+/**
+ * Shape of the synthetic load, read from {@code loadtest.*} system properties.
+ *
+ * @param target         where messages are sent: straight to {@code inbound_message_queue}, or through the REST endpoint
+ * @param machines       distinct machine ids, all whitelisted, messages are spread evenly over them
+ * @param sessionLength  messages per session before a machine starts a new session
+ * @param duplicateRatio fraction of sends that repeat an already sent (session, sequence) and must be dropped
+ * @param rate           sends per second
+ * @param messages       total sends, duplicates included
+ */
+record LoadProfile(Target target, int machines, int sessionLength, double duplicateRatio, int rate, int messages) {
+
+    enum Target {
+        KAFKA,
+        REST,
+    }
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Target.valueOf(System.getProperty("loadtest.target", "kafka").toUpperCase()),
+                Integer.getInteger("loadtest.machines", 50),
+                Integer.getInteger("loadtest.session-length", 200),
+                Double.parseDouble(System.getProperty("loadtest.duplicate-ratio", "0.05")),
+                Integer.getInteger("loadtest.rate", 2_000),
+                Integer.getInteger("loadtest.messages", 50_000));
+    }
+}
@@ -0,0 +1,114 @@
+package com.johndeere.challenge.loadtest;
+
+import com.johndeere.challenge.model.Message;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Book-keeping of one load run: when each unique message was due to be sent, and when it came out
+ * of {@code outbound_message_queue}.
+ * <p>
+ * Latency is measured from the scheduled send time rather than the actual one, so a stalled
+ * pipeline that slows the sender down still shows up in the percentiles.
+ */
+final class LoadRun {
+
+    private final Map<String, Long> dueAt = new ConcurrentHashMap<>();
+    private final Timer latency = Timer.builder("loadtest.latency")
+            .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+            .distributionStatisticExpiry(Duration.ofHours(1))
+            .distributionStatisticBufferLength(1)
+            .register(new SimpleMeterRegistry());
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder duplicatesSent = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rejectedUnique = new LongAdder();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder forwardedDuplicates = new LongAdder();
+    private final AtomicLong firstForwardedAt = new AtomicLong();
+    private final AtomicLong lastForwardedAt = new AtomicLong();
+    private volatile long startedAt;
+    private volatile long sendingEndedAt;
+
+    void started() {
+        startedAt = System.nanoTime();
+    }
+
+    void sent(LoadGenerator.Generated generated, long scheduledAt) {
+        sent.increment();
+        if (generated.duplicate()) {
+            duplicatesSent.increment();
+        } else {
+            dueAt.put(LoadGenerator.key(generated.message()), scheduledAt);
+        }
+    }
+
+    void rejected(LoadGenerator.Generated generated) {
+        rejected.increment();
+        if (!generated.duplicate()) {
+            rejectedUnique.increment();
+            dueAt.remove(LoadGenerator.key(generated.message()));
+        }
+    }
+
+    void sendingEnded() {
+        sendingEndedAt = System.nanoTime();
+    }
+
+    void forwarded(Message message) {
+        long now = System.nanoTime();
+        Long scheduledAt = dueAt.remove(LoadGenerator.key(message));
+        if (scheduledAt == null) {
+            forwardedDuplicates.increment();
+            return;
+        }
+        latency.record(now - scheduledAt, TimeUnit.NANOSECONDS);
+        forwarded.increment();
+        firstForwardedAt.compareAndSet(0, now);
+        lastForwardedAt.set(now);
+    }
+
+    long expected() {
+        return sent.sum() - duplicatesSent.sum() - rejectedUnique.sum();
+    }
+
+    long forwarded() {
+        return forwarded.sum();
+    }
+
+    long forwardedDuplicates() {
+        return forwardedDuplicates.sum();
+    }
+
+    String report(LoadProfile profile) {
+        StringBuilder report = new StringBuilder()
+                .append("Load run ").append(profile).append('\n')
+                .append(String.format("  sent:       %d (%d duplicates, %d rejected) at %.0f msg/s%n",
+                        sent.sum(), duplicatesSent.sum(), rejected.sum(),
+                        perSecond(sent.sum(), sendingEndedAt - startedAt)))
+                .append(String.format("  forwarded:  %d of %d expected, %d duplicates leaked, sustained %.0f msg/s%n",
+                        forwarded(), expected(), forwardedDuplicates(),
+                        perSecond(forwarded(), lastForwardedAt.get() - firstForwardedAt.get())))
+                .append("  end-to-end latency:");
+
+        HistogramSnapshot snapshot = latency.takeSnapshot();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            report.append(String.format(" p%s=%.1fms", percentile.percentile() * 100, percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        report.append(String.format(" max=%.1fms", snapshot.max(TimeUnit.MILLISECONDS)));
+        return report.toString();
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos <= 0 ? 0 : count * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,168 @@
+package com.johndeere.challenge.loadtest;
+
+import com.johndeere.challenge.id.IdGenerator;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.MessageDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openapitools.client.api.PetApi;
+import org.openapitools.client.model.Pet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.kafka.ConfluentKafkaContainer;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * End-to-end throughput harness: drives synthetic load into the running application, backed by
+ * Kafka and Mongo containers, and reports sustained throughput and end-to-end latency up to
+ * {@code outbound_message_queue}. Skipped unless {@code -Dloadtest=true}, e.g.
+ * <pre>
+ * mvn test -Dtest=ThroughputHarnessTest -Dloadtest=true -Dloadtest.rate=5000 -Dlistener.mode=batch
+ * </pre>
+ * The machine lookup service is mocked so that it is not part of the measurement.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ThroughputHarnessTest {
+
+    private static final LoadProfile PROFILE = LoadProfile.fromSystemProperties();
+
+    @Container
+    static MongoDBContainer mongoContainer = new MongoDBContainer("mongo:5.0").withReuse(false);
+
+    @Container
+    static ConfluentKafkaContainer kafkaContainer = new ConfluentKafkaContainer("confluentinc/cp-kafka:7.4.0").withReuse(false);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoContainer::getReplicaSetUrl);
+        registry.add("spring.kafka.bootstrap-servers", kafkaContainer::getBootstrapServers);
+        registry.add("spring.kafka.producer.bootstrap-servers", kafkaContainer::getBootstrapServers);
+        registry.add("spring.kafka.consumer.bootstrap-servers", kafkaContainer::getBootstrapServers);
+
+        registry.add("machine.whitelist", () -> IntStream.rangeClosed(1, PROFILE.machines())
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(",")));
+        // Admission control is measured separately; here every machine may use the whole rate
+        registry.add("ingest.machine-rate", PROFILE::rate);
+        registry.add("ingest.machine-burst", PROFILE::rate);
+    }
+
+    @MockitoBean
+    private PetApi petApi;
+
+    @Autowired
+    private KafkaTemplate<String, Message> kafkaTemplate;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private OutboundProbe outboundProbe;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void sustainedLoad_ForwardsEveryUniqueMessage() throws InterruptedException {
+        when(petApi.getPetById(anyLong())).thenReturn(new Pet());
+        LoadRun run = new LoadRun();
+        outboundProbe.run = run;
+
+        LoadGenerator generator = new LoadGenerator(PROFILE, idGenerator, 42);
+        RestClient restClient = RestClient.create("http://localhost:" + port);
+        long interval = TimeUnit.SECONDS.toNanos(1) / PROFILE.rate();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            run.started();
+            long start = System.nanoTime();
+            for (int i = 0; i < PROFILE.messages(); i++) {
+                // Open loop: sends follow the schedule, however long earlier sends took
+                long scheduledAt = start + i * interval;
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                LoadGenerator.Generated generated = generator.next();
+                run.sent(generated, scheduledAt);
+                Message message = generated.message();
+                switch (PROFILE.target()) {
+                    case KAFKA -> kafkaTemplate.send("inbound_message_queue", message.sessionGuid().toString(), message);
+                    case REST -> requests.execute(() -> {
+                        try {
+                            restClient.post()
+                                    .uri("/api/messages?topic=inbound_message_queue")
+                                    .body(new MessageDto(message.sessionGuid(), message.sequenceNumber(),
+                                            message.machineId(), message.data()))
+                                    .retrieve()
+                                    .toBodilessEntity();
+                        } catch (RestClientResponseException e) {
+                            run.rejected(generated);
+                        }
+                    });
+                }
+            }
+        }
+        kafkaTemplate.flush();
+        run.sendingEnded();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (run.forwarded() < run.expected() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        log.info("Throughput report:\n{}", run.report(PROFILE));
+        assertEquals(run.expected(), run.forwarded(), "Every unique message should be forwarded");
+        assertEquals(0, run.forwardedDuplicates(), "No duplicate should be forwarded");
+    }
+
+    @TestConfiguration
+    static class ProbeConfig {
+
+        @Bean
+        OutboundProbe outboundProbe() {
+            return new OutboundProbe();
+        }
+    }
+
+    static class OutboundProbe {
+
+        volatile LoadRun run;
+
+        @KafkaListener(topics = "outbound_message_queue", groupId = "loadtest-probe")
+        void receive(Message message) {
+            LoadRun current = run;
+            if (current != null && message != null) {
+                current.forwarded(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.johndeere.challenge.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageDataTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void deserialize_LegacyStringForm_NormalizesToSiUnit() throws Exception {
+
+        MessageData data = objectMapper.readValue(
+                "{\"type\": \"DISTANCE\", \"unit\": \"km\", \"value\": \"1.5\"}", MessageData.class);
+
+        assertEquals(MessageDataType.DISTANCE, data.type());
+        assertEquals(1_500.0, data.value());
+    }
+
+    @Test
+    void deserialize_TypedForm_KeepsValue() throws Exception {
+
+        MessageData data = objectMapper.readValue(
+                "{\"type\": \"WORKED_SURFACE\", \"value\": 600.0}", MessageData.class);
+
+        assertEquals(MessageDataType.WORKED_SURFACE, data.type());
+        assertEquals(600.0, data.value());
+    }
+
+    @Test
+    void deserialize_Hectares_ConvertedToSquareMetres() throws Exception {
+
+        MessageData data = objectMapper.readValue(
+                "{\"type\": \"WORKED_SURFACE\", \"unit\": \"ha\", \"value\": \"2\"}", MessageData.class);
+
+        assertEquals(20_000.0, data.value());
+    }
+
+    @Test
+    void serialize_WritesCompactTypedForm() throws Exception {
+
+        String json = objectMapper.writeValueAsString(new MessageData(MessageDataType.DISTANCE, 100.0));
+
+        assertEquals("{\"type\":\"DISTANCE\",\"value\":100.0}", json);
+    }
+
+    @Test
+    void deserialize_UnsupportedUnit_Fails() {
+
+        assertThrows(ValueInstantiationException.class, () -> objectMapper.readValue(
+                "{\"type\": \"DISTANCE\", \"unit\": \"m2\", \"value\": \"1\"}", MessageData.class));
+    }
+
+    @Test
+    void deserialize_NonNumericValue_Fails() {
+
+        assertThrows(ValueInstantiationException.class, () -> objectMapper.readValue(
+                "{\"type\": \"DISTANCE\", \"unit\": \"m\", \"value\": \"far\"}", MessageData.class));
+    }
+
+    @Test
+    void deserialize_NumericValueWithUnit_NormalizesToSiUnit() throws Exception {
+
+        MessageData data = objectMapper.readValue(
+                "{\"type\": \"workedSurface\", \"unit\": \"ha\", \"value\": 1.5}", MessageData.class);
+
+        assertEquals(MessageDataType.WORKED_SURFACE, data.type());
+        assertEquals(15_000.0, data.value());
+    }
+
+    @Test
+    void deserialize_UnsupportedType_Fails() {
+
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue(
+                "{\"type\": \"speed\", \"value\": 1}", MessageData.class));
+    }
+
+    @Test
+    void fromString_AnyCaseOrUnderscores_ResolvesSameType() {
+
+        for (String name : new String[]{"WORKED_SURFACE", "workedSurface", "worked_surface", "WORKEDSURFACE"}) {
+            assertEquals(MessageDataType.WORKED_SURFACE, MessageDataType.fromString(name), name);
+        }
+        assertEquals(MessageDataType.DISTANCE, MessageDataType.find("xxDistancexx".toCharArray(), 2, 8));
+        assertNull(MessageDataType.find("distances".toCharArray(), 0, 9));
+        assertThrows(IllegalArgumentException.class, () -> MessageDataType.fromString("worked"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.config.MongoConversionConfig;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageDataReadingConverterTest {
+
+    private final MessageDataReadingConverter converter = new MessageDataReadingConverter();
+
+    @Test
+    void convert_LegacyUnitAndString_NormalizesToSiUnit() {
+
+        MessageData data = converter.convert(new Document("type", "DISTANCE").append("unit", "km").append("value", "1.5"));
+
+        assertEquals(new MessageData(MessageDataType.DISTANCE, 1_500.0), data);
+    }
+
+    @Test
+    void convert_CurrentForm_KeepsValue() {
+
+        MessageData data = converter.convert(new Document("type", "WORKED_SURFACE").append("value", 600.0));
+
+        assertEquals(new MessageData(MessageDataType.WORKED_SURFACE, 600.0), data);
+    }
+
+    @Test
+    void read_LegacyMessageDocument_NormalizesItsData() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        MongoCustomConversions conversions = new MongoConversionConfig().mongoCustomConversions();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter mongoConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        mongoConverter.setCustomConversions(conversions);
+        mongoConverter.afterPropertiesSet();
+        Document document = new Document("_id", UUID.randomUUID())
+                .append("sessionGuid", UUID.randomUUID())
+                .append("sequenceNumber", 1)
+                .append("machineId", 7)
+                .append("data", List.of(new Document("type", "WORKED_SURFACE").append("unit", "ha").append("value", "2")));
+
+        Message message = mongoConverter.read(Message.class, document);
+
+        assertEquals(List.of(new MessageData(MessageDataType.WORKED_SURFACE, 20_000.0)), message.data());
+    }
+
+    @Test
+    void convert_MissingValue_Throws() {
+
+        assertThrows(IllegalArgumentException.class, () -> converter.convert(new Document("type", "DISTANCE")));
+    }
+}
@@ -0,0 +1,87 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.Message;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private MessageRepositoryCustomImpl repository;
+    private List<Message> messages;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MessageRepositoryCustomImpl(mongoTemplate);
+        messages = List.of(message(1), message(2), message(3));
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(Message.class))).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    @Test
+    void bulkInsert_DuplicateAndOtherRejection_ReportsOnlyOtherRejection() {
+        failWith(error(1, 11000), error(2, 121));
+        List<Message> rejected = new ArrayList<>();
+
+        List<Message> inserted = repository.bulkInsert(messages, (message, e) -> {
+            assertInstanceOf(DataIntegrityViolationException.class, e);
+            rejected.add(message);
+        });
+
+        assertEquals(List.of(messages.get(0)), inserted);
+        assertEquals(List.of(messages.get(2)), rejected);
+    }
+
+    @Test
+    void bulkInsert_OtherRejection_ReturnsInsertedMessages() {
+        failWith(error(2, 121));
+
+        List<Message> inserted = repository.bulkInsert(messages);
+
+        assertEquals(messages.subList(0, 2), inserted);
+    }
+
+    private void failWith(BulkWriteError... errors) {
+        BulkOperationException exception = mock(BulkOperationException.class);
+        when(exception.getErrors()).thenReturn(List.of(errors));
+        when(bulkOperations.execute()).thenThrow(exception);
+    }
+
+    private static BulkWriteError error(int index, int code) {
+        return new BulkWriteError(code, "Rejected", new BsonDocument(), index);
+    }
+
+    private static Message message(int sequenceNumber) {
+        return Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(UUID.randomUUID())
+                .sequenceNumber(sequenceNumber)
+                .machineId(1)
+                .data(List.of())
+                .build();
+    }
+}
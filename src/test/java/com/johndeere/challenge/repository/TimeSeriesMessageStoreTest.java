@@ -0,0 +1,90 @@
+package com.johndeere.challenge.repository;
+
+import com.johndeere.challenge.model.TimeSeriesMessage;
+import com.johndeere.challenge.model.dto.MachineMessageCursor;
+import com.johndeere.challenge.model.dto.MachineMessagePageDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSeriesMessageStoreTest {
+
+    private static final Instant FROM = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2025-01-02T00:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private TimeSeriesMessageRepository repository;
+
+    private TimeSeriesMessageStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TimeSeriesMessageStore(mongoTemplate, repository);
+    }
+
+    @Test
+    void findPageByMachineId_FullPage_ReturnsCursorOfLastMessage() {
+        Instant ingestedAt = FROM.plusSeconds(60);
+        List<TimeSeriesMessage> documents = List.of(document(1, ingestedAt), document(2, ingestedAt));
+        when(mongoTemplate.find(any(Query.class), eq(TimeSeriesMessage.class))).thenReturn(documents);
+
+        MachineMessagePageDto page = store.findPageByMachineId(1, FROM, TO, null, 2);
+
+        assertEquals(2, page.messages().size());
+        assertEquals(new MachineMessageCursor(ingestedAt, documents.getLast().id()), page.nextAfter());
+    }
+
+    @Test
+    void findPageByMachineId_AfterCursor_QueriesPastItAndEndsOnShortPage() {
+        MachineMessageCursor after = new MachineMessageCursor(FROM.plusSeconds(60), UUID.randomUUID());
+        when(mongoTemplate.find(any(Query.class), eq(TimeSeriesMessage.class)))
+                .thenReturn(List.of(document(3, FROM.plusSeconds(61))));
+
+        MachineMessagePageDto page = store.findPageByMachineId(1, FROM, TO, after, 2);
+
+        assertEquals(1, page.messages().size());
+        assertNull(page.nextAfter());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(TimeSeriesMessage.class));
+        assertEquals(2, query.getValue().getLimit());
+        assertTrue(query.getValue().getQueryObject().containsKey("$or"));
+    }
+
+    @Test
+    void cursor_ToString_ParsesBack() {
+        MachineMessageCursor cursor = new MachineMessageCursor(FROM, UUID.randomUUID());
+
+        MachineMessageCursor parsed = MachineMessageCursor.valueOf(cursor.toString());
+
+        assertEquals(cursor, parsed);
+        assertThrows(IllegalArgumentException.class, () -> MachineMessageCursor.valueOf("2025-01-01"));
+    }
+
+    private static TimeSeriesMessage document(int sequenceNumber, Instant ingestedAt) {
+        return TimeSeriesMessage.builder()
+                .id(UUID.randomUUID())
+                .ingestedAt(ingestedAt)
+                .meta(new TimeSeriesMessage.Meta(1, UUID.randomUUID()))
+                .sequenceNumber(sequenceNumber)
+                .data(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.config.IngestConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngestAdmissionTest {
+
+    @Mock
+    private KafkaTemplate<String, Message> kafkaTemplate;
+
+    private IngestConfig ingestConfig;
+
+    @BeforeEach
+    void setUp() {
+        ingestConfig = new IngestConfig();
+    }
+
+    @Test
+    void admit_InFlightLimitReached_RejectsUntilReleased() {
+        ingestConfig.setMaxInFlight(1);
+        IngestAdmission admission = createAdmission();
+
+        admission.admit(1);
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admission.admit(2));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+
+        admission.release();
+        assertDoesNotThrow(() -> admission.admit(2));
+    }
+
+    @Test
+    void admit_MachineOverRate_RejectsOnlyThatMachine() {
+        ingestConfig.setMachineBurst(1);
+        ingestConfig.setMachineRate(0.001);
+        ingestConfig.setRetryAfter(Duration.ofSeconds(3));
+        IngestAdmission admission = createAdmission();
+
+        admission.admit(1);
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admission.admit(1));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        assertEquals(Duration.ofSeconds(3), e.getRetryAfter());
+
+        assertDoesNotThrow(() -> admission.admit(2));
+    }
+
+    @Test
+    void admit_InFlightLimitReached_KeepsMachineToken() {
+        ingestConfig.setMaxInFlight(1);
+        ingestConfig.setMachineBurst(1);
+        ingestConfig.setMachineRate(0.001);
+        IngestAdmission admission = createAdmission();
+
+        admission.admit(1);
+        assertThrows(AdmissionRejectedException.class, () -> admission.admit(2));
+        admission.release();
+
+        assertDoesNotThrow(() -> admission.admit(2));
+    }
+
+    @Test
+    void admit_MachineOverRate_FreesInFlightSlot() {
+        ingestConfig.setMaxInFlight(1);
+        ingestConfig.setMachineBurst(1);
+        ingestConfig.setMachineRate(0.001);
+        IngestAdmission admission = createAdmission();
+
+        admission.admit(1);
+        admission.release();
+        assertThrows(AdmissionRejectedException.class, () -> admission.admit(1));
+
+        assertDoesNotThrow(() -> admission.admit(2));
+    }
+
+    @Test
+    void admitWaiting_NoSlotFreed_RejectsAfterTimeout() {
+        ingestConfig.setMaxInFlight(1);
+        ingestConfig.setAdmissionTimeout(Duration.ofMillis(10));
+        IngestAdmission admission = createAdmission();
+
+        admission.admitWaiting(1);
+
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admission.admitWaiting(2));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    }
+
+    @Test
+    void admitWaiting_MachineOverRate_FreesInFlightSlot() {
+        ingestConfig.setMaxInFlight(1);
+        ingestConfig.setMachineRate(0.001);
+        ingestConfig.setMachineBurst(1);
+        ingestConfig.setAdmissionTimeout(Duration.ofMillis(10));
+        IngestAdmission admission = createAdmission();
+        admission.admitWaiting(1);
+        admission.release();
+
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admission.admitWaiting(1));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        assertDoesNotThrow(() -> admission.admitWaiting(2));
+    }
+
+    private IngestAdmission createAdmission() {
+        return new IngestAdmission(ingestConfig, kafkaTemplate, new PipelineMetrics(new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.config.MachineConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MachineWhitelistTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MachineConfig machineConfig;
+
+    @BeforeEach
+    void setUp() {
+        machineConfig = new MachineConfig();
+        machineConfig.setWhitelist(List.of(1, 2));
+    }
+
+    @Test
+    void contains_ConfiguredWhitelist_MatchesOnlyListedMachines() {
+
+        MachineWhitelist whitelist = new MachineWhitelist(machineConfig);
+
+        assertTrue(whitelist.contains(1));
+        assertTrue(whitelist.contains(2));
+        assertFalse(whitelist.contains(3));
+    }
+
+    @Test
+    void reload_ChangedFile_SwapsWhitelist() throws IOException {
+
+        Path file = tempDir.resolve("whitelist.txt");
+        Files.writeString(file, "# fleet A\n10\n11 # combine\n");
+        machineConfig.setWhitelistFile(file);
+
+        MachineWhitelist whitelist = new MachineWhitelist(machineConfig);
+
+        assertTrue(whitelist.contains(10));
+        assertTrue(whitelist.contains(11));
+        assertFalse(whitelist.contains(1), "File should override the configured whitelist");
+
+        Files.writeString(file, "12\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        whitelist.reload();
+
+        assertTrue(whitelist.contains(12));
+        assertFalse(whitelist.contains(10));
+    }
+
+    @Test
+    void reload_InvalidFile_KeepsCurrentWhitelist() throws IOException {
+
+        Path file = tempDir.resolve("whitelist.txt");
+        Files.writeString(file, "10\n");
+        machineConfig.setWhitelistFile(file);
+        MachineWhitelist whitelist = new MachineWhitelist(machineConfig);
+
+        Files.writeString(file, "10\nnot-a-machine\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        whitelist.reload();
+
+        assertTrue(whitelist.contains(10));
+        assertEquals(1, whitelist.size());
+    }
+}
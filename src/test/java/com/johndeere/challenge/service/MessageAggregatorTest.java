@@ -0,0 +1,150 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.MessageData;
+import com.johndeere.challenge.model.MessageDataType;
+import com.johndeere.challenge.model.MessageSummary;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageAggregatorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private MessageAggregator aggregator;
+    private List<Map<String, Document>> flushes;
+    private UUID sessionGuid;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new MessageAggregator(mongoTemplate);
+        flushes = new ArrayList<>();
+        sessionGuid = UUID.randomUUID();
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MessageSummary.class)).thenAnswer(invocation -> {
+            flushes.add(new LinkedHashMap<>());
+            return bulkOperations;
+        });
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            Update update = invocation.getArgument(1);
+            flushes.getLast().put(query.getQueryObject().getString("_id"), update.getUpdateObject());
+            return bulkOperations;
+        });
+    }
+
+    @Test
+    void flush_SeveralMessages_UpsertsOneMergedSummaryPerSessionAndMachine() {
+        aggregator.accept(message(1, 7, 10.0));
+        aggregator.accept(message(2, 7, 4.0));
+        aggregator.accept(message(3, 7, 25.0));
+
+        aggregator.flush();
+
+        Document session = flushes.getFirst().get("session:" + sessionGuid);
+        assertEquals(Set.of("session:" + sessionGuid, "machine:7"), flushes.getFirst().keySet());
+        assertEquals(3L, session.get("$inc", Document.class).get("messages"));
+        assertEquals(39.0, session.get("$inc", Document.class).get("metrics.DISTANCE.sum"));
+        assertEquals(3L, session.get("$inc", Document.class).get("metrics.DISTANCE.count"));
+        assertEquals(4.0, session.get("$min", Document.class).get("metrics.DISTANCE.min"));
+        assertEquals(25.0, session.get("$max", Document.class).get("metrics.DISTANCE.max"));
+        assertEquals(3, session.get("$max", Document.class).get("lastSequenceNumber"));
+    }
+
+    @Test
+    void flush_PartialBulkFailure_RetriesOnlyFailedUpserts() {
+        aggregator.accept(message(1, 7, 10.0));
+        when(bulkOperations.execute())
+                .thenAnswer(invocation -> {
+                    int failed = new ArrayList<>(flushes.getLast().keySet()).indexOf("machine:7");
+                    throw bulkFailure(failed);
+                })
+                .thenReturn(null);
+
+        aggregator.flush();
+        aggregator.accept(message(2, 7, 4.0));
+        aggregator.flush();
+
+        Map<String, Document> retried = flushes.getLast();
+        assertEquals(Set.of("session:" + sessionGuid, "machine:7"), retried.keySet());
+        assertEquals(1L, retried.get("session:" + sessionGuid).get("$inc", Document.class).get("messages"));
+        assertEquals(2L, retried.get("machine:7").get("$inc", Document.class).get("messages"));
+        assertEquals(14.0, retried.get("machine:7").get("$inc", Document.class).get("metrics.DISTANCE.sum"));
+    }
+
+    @Test
+    void flush_BulkNotExecuted_RetriesAllUpserts() {
+        aggregator.accept(message(1, 7, 10.0));
+        when(bulkOperations.execute())
+                .thenThrow(new DataAccessResourceFailureException("Mongo down"))
+                .thenReturn(null);
+
+        aggregator.flush();
+        aggregator.flush();
+
+        Map<String, Document> retried = flushes.getLast();
+        assertEquals(1L, retried.get("session:" + sessionGuid).get("$inc", Document.class).get("messages"));
+        assertEquals(1L, retried.get("machine:7").get("$inc", Document.class).get("messages"));
+    }
+
+    @Test
+    void flush_RetractedAfterEarlierFlush_SubtractsCountsAndSums() {
+        Message retracted = message(2, 7, 4.0);
+        aggregator.accept(message(1, 7, 10.0));
+        aggregator.accept(retracted);
+        aggregator.flush();
+
+        aggregator.retract(retracted);
+        aggregator.flush();
+
+        Document session = flushes.getLast().get("session:" + sessionGuid);
+        assertEquals(-1L, session.get("$inc", Document.class).get("messages"));
+        assertEquals(-4.0, session.get("$inc", Document.class).get("metrics.DISTANCE.sum"));
+        assertEquals(-1L, session.get("$inc", Document.class).get("metrics.DISTANCE.count"));
+        assertNull(session.get("$min", Document.class));
+        assertEquals(-1L, flushes.getLast().get("machine:7").get("$inc", Document.class).get("messages"));
+    }
+
+    private static BulkOperationException bulkFailure(int index) {
+        BulkOperationException exception = mock(BulkOperationException.class);
+        when(exception.getErrors()).thenReturn(List.of(new BulkWriteError(2, "Rejected", new BsonDocument(), index)));
+        return exception;
+    }
+
+    private Message message(int sequenceNumber, int machineId, double distance) {
+        return Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(sessionGuid)
+                .sequenceNumber(sequenceNumber)
+                .machineId(machineId)
+                .data(List.of(new MessageData(MessageDataType.DISTANCE, distance)))
+                .build();
+    }
+}
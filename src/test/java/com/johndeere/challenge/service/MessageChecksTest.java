@@ -0,0 +1,117 @@
+package com.johndeere.challenge.service;
+
+import com.johndeere.challenge.config.DedupConfig;
+import com.johndeere.challenge.config.MachineConfig;
+import com.johndeere.challenge.config.MachineLookupConfig;
+import com.johndeere.challenge.config.PipelineConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.repository.MessageStore;
+import com.johndeere.challenge.service.MessageChecks.Verdict;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openapitools.client.api.PetApi;
+import org.openapitools.client.model.Pet;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageChecksTest {
+
+    @Mock
+    private MessageStore messageStore;
+
+    @Mock
+    private PetApi petApi;
+
+    private final PipelineConfig config = new PipelineConfig();
+    private MachineLookup machineLookup;
+    private MessageChecks checks;
+
+    private final Message message = Message.builder()
+            .id(UUID.randomUUID())
+            .sessionGuid(UUID.randomUUID())
+            .sequenceNumber(1)
+            .machineId(1)
+            .data(List.of())
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        MachineConfig machineConfig = new MachineConfig();
+        machineConfig.setWhitelist(List.of(1));
+        machineLookup = new MachineLookup(petApi, new MachineLookupConfig());
+        checks = new MessageChecks(new MachineWhitelist(machineConfig), machineLookup,
+                new SessionSequenceIndex(messageStore, new DedupConfig()),
+                new PipelineMetrics(new SimpleMeterRegistry()), config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        checks.close();
+        machineLookup.close();
+    }
+
+    @Test
+    void evaluate_RemoteChecks_RunConcurrently() {
+
+        // Each remote call waits for the other one to start, which only completes if they overlap
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch dedupStarted = new CountDownLatch(1);
+        when(petApi.getPetById(1L)).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            assertTrue(dedupStarted.await(1, TimeUnit.SECONDS));
+            return new Pet();
+        });
+        when(messageStore.findSequenceNumbersBySessionGuid(message.sessionGuid())).thenAnswer(invocation -> {
+            dedupStarted.countDown();
+            assertTrue(lookupStarted.await(1, TimeUnit.SECONDS));
+            return List.of();
+        });
+
+        assertEquals(Verdict.ACCEPTED, checks.evaluate(message).join());
+    }
+
+    @Test
+    void evaluate_NotWhitelisted_ShortCircuitsBeforeRemoteChecks() {
+
+        Message otherMachine = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(message.sessionGuid())
+                .sequenceNumber(1)
+                .machineId(2)
+                .data(List.of())
+                .build();
+
+        assertEquals(Verdict.NOT_WHITELISTED, checks.evaluate(otherMachine).join());
+        verifyNoInteractions(petApi, messageStore);
+    }
+
+    @Test
+    void evaluate_SlowLookup_FailsWithTimeout() {
+
+        config.setLookupTimeout(Duration.ofMillis(50));
+        when(petApi.getPetById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return new Pet();
+        });
+        when(messageStore.findSequenceNumbersBySessionGuid(message.sessionGuid())).thenReturn(List.of());
+
+        CompletionException e = assertThrows(CompletionException.class, () -> checks.evaluate(message).join());
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+}
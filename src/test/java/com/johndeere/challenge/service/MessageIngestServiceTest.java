@@ -0,0 +1,133 @@
+package com.johndeere.challenge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.johndeere.challenge.config.IngestConfig;
+import com.johndeere.challenge.id.UuidV7Generator;
+import com.johndeere.challenge.kafka.KafkaProducer;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.model.dto.IngestResultDto;
+import com.johndeere.challenge.model.dto.IngestResultDto.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageIngestServiceTest {
+
+    private static final String TOPIC = "inbound_message_queue";
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    @Mock
+    private KafkaTemplate<String, Message> kafkaTemplate;
+
+    private IngestConfig ingestConfig;
+    private MessageIngestService ingestService;
+
+    @BeforeEach
+    void setUp() {
+        ingestConfig = new IngestConfig();
+        ingestService = createService();
+    }
+
+    private MessageIngestService createService() {
+        IngestAdmission admission = new IngestAdmission(ingestConfig, kafkaTemplate,
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        return new MessageIngestService(kafkaProducer, admission, new UuidV7Generator(),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+    }
+
+    @Test
+    void ingest_JsonArray_AcksEveryItem() throws IOException {
+        when(kafkaProducer.sendToKafka(any(Message.class), eq(TOPIC)))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+
+        List<IngestResultDto> results = ingestService.ingest(body("[" + item(1) + "," + item(2) + "]"), TOPIC);
+
+        assertEquals(List.of(Status.ACKED, Status.ACKED), results.stream().map(IngestResultDto::status).toList());
+        assertNotNull(results.get(0).id());
+        verify(kafkaProducer, times(2)).sendToKafka(any(Message.class), eq(TOPIC));
+    }
+
+    @Test
+    void ingest_Ndjson_InvalidItemRejectedWithoutStoppingTheRest() throws IOException {
+        when(kafkaProducer.sendToKafka(any(Message.class), eq(TOPIC)))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+
+        List<IngestResultDto> results = ingestService.ingest(body(item(1) + "\n" + item(-1) + "\n" + item(3) + "\n"), TOPIC);
+
+        assertEquals(List.of(Status.ACKED, Status.REJECTED, Status.ACKED),
+                results.stream().map(IngestResultDto::status).toList());
+        assertEquals(1, results.get(1).index());
+        assertTrue(results.get(1).error().contains("sequenceNumber"));
+        verify(kafkaProducer, times(2)).sendToKafka(any(Message.class), eq(TOPIC));
+    }
+
+    @Test
+    void ingest_BrokerFailure_ReportsFailedItem() throws IOException {
+        when(kafkaProducer.sendToKafka(any(Message.class), eq(TOPIC)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("Send failed")));
+
+        List<IngestResultDto> results = ingestService.ingest(body(item(1)), TOPIC);
+
+        assertEquals(Status.FAILED, results.get(0).status());
+        assertNotNull(results.get(0).id());
+    }
+
+    @Test
+    void ingest_MalformedJson_StopsReading() throws IOException {
+        when(kafkaProducer.sendToKafka(any(Message.class), eq(TOPIC)))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+
+        List<IngestResultDto> results = ingestService.ingest(body(item(1) + "\n{\"sessionGuid\": ]\n" + item(3)), TOPIC);
+
+        assertEquals(List.of(Status.ACKED, Status.REJECTED), results.stream().map(IngestResultDto::status).toList());
+        verify(kafkaProducer).sendToKafka(any(Message.class), eq(TOPIC));
+    }
+
+    @Test
+    void ingest_MachineOverRate_ThrottlesExcessItems() throws IOException {
+        ingestConfig.setMachineBurst(2);
+        ingestConfig.setMachineRate(0.001);
+        ingestService = createService();
+        when(kafkaProducer.sendToKafka(any(Message.class), eq(TOPIC)))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+
+        List<IngestResultDto> results = ingestService.ingest(body(item(1) + item(2) + item(3)), TOPIC);
+
+        assertEquals(List.of(Status.ACKED, Status.ACKED, Status.THROTTLED),
+                results.stream().map(IngestResultDto::status).toList());
+        verify(kafkaProducer, times(2)).sendToKafka(any(Message.class), eq(TOPIC));
+    }
+
+    private static String item(int sequenceNumber) {
+        return """
+                {"sessionGuid": "a65de8c4-6385-4008-be36-5df0c5104fd5", "sequenceNumber": %d, "machineId": 1,
+                 "data": [{"type": "DISTANCE", "unit": "m", "value": "100"}]}""".formatted(sequenceNumber).replace("\n", "");
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,39 +1,61 @@
 package com.johndeere.challenge.service;
 
-import com.johndeere.challenge.config.MachineConfig;
+import com.johndeere.challenge.config.DedupConfig;
+import com.johndeere.challenge.config.MachineLookupConfig;
+import com.johndeere.challenge.config.PipelineConfig;
+import com.johndeere.challenge.metrics.PipelineMetrics;
 import com.johndeere.challenge.model.Message;
 import com.johndeere.challenge.model.MessageData;
 import com.johndeere.challenge.model.MessageDataType;
-import com.johndeere.challenge.repository.MessageRepository;
+import com.johndeere.challenge.model.dto.MessagePageDto;
+import com.johndeere.challenge.model.dto.MessageSequenceDto;
+import com.johndeere.challenge.repository.MessageStore;
+import com.johndeere.challenge.spool.MessageSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.openapitools.client.api.PetApi;
 import org.openapitools.client.model.Pet;
-
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MessageServiceTest {
 
     @Mock
-    private MessageRepository messageRepository;
+    private MessageStore messageStore;
 
     @Mock
-    private MachineConfig machineConfig;
+    private MachineWhitelist machineWhitelist;
 
     @Mock
     private PetApi petApi;
 
-    @InjectMocks
+    @Mock
+    private MessageAggregator aggregator;
+
+    @Mock
+    private MessageSpool spool;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
     private MessageService messageService;
 
     private Message testMessage;
@@ -41,6 +63,12 @@ class MessageServiceTest {
 
     @BeforeEach
     void setUp() {
+        PipelineMetrics metrics = new PipelineMetrics(registry);
+        SessionSequenceIndex sequenceIndex = new SessionSequenceIndex(messageStore, new DedupConfig());
+        MessageChecks checks = new MessageChecks(machineWhitelist,
+                new MachineLookup(petApi, new MachineLookupConfig()), sequenceIndex, metrics, new PipelineConfig());
+        messageService = new MessageService(messageStore, checks, sequenceIndex, metrics, aggregator, spool);
+
         testSessionGuid = UUID.randomUUID();
         testMessage = Message.builder()
                 .id(UUID.randomUUID())
@@ -50,8 +78,7 @@ class MessageServiceTest {
                 .data(List.of(
                         MessageData.builder()
                                 .type(MessageDataType.DISTANCE)
-                                .unit("m")
-                                .value("100")
+                                .value(100)
                                 .build()
                 ))
                 .build();
@@ -60,29 +87,31 @@ class MessageServiceTest {
     @Test
     void consumeMessage_ValidAuthorizedMessage_ReturnsTrue() {
 
-        when(machineConfig.getWhitelist()).thenReturn(List.of(1, 2, 3));
+        whitelist(1, 2, 3);
         when(petApi.getPetById(1L)).thenReturn(new Pet());
-        when(messageRepository.findBySessionGuid(any())).thenReturn(List.of());
+        when(messageStore.findSequenceNumbersBySessionGuid(any())).thenReturn(List.of());
 
         boolean result = messageService.consumeMessage(testMessage);
 
         assertTrue(result);
-        verify(messageRepository).save(testMessage);
+        verify(messageStore).insert(testMessage);
+        verify(aggregator).accept(testMessage);
     }
 
     @Test
     void consumeMessage_UnauthorizedMachine_ReturnsFalse() {
 
-        when(machineConfig.getWhitelist()).thenReturn(List.of(2, 3, 4)); // Machine 1 not in whitelist
-        when(petApi.getPetById(1L)).thenReturn(new Pet());
-        when(messageRepository.findBySessionGuid(any())).thenReturn(List.of());
+        when(machineWhitelist.contains(1)).thenReturn(false); // Machine 1 not in whitelist
 
 
         boolean result = messageService.consumeMessage(testMessage);
 
 
         assertFalse(result);
-        verify(messageRepository, never()).save(any());
+        verify(messageStore, never()).insert(any(Message.class));
+        // The local whitelist check rejects the message before any remote check starts
+        verifyNoInteractions(petApi);
+        verify(messageStore, never()).findSequenceNumbersBySessionGuid(any());
     }
 
     @Test
@@ -96,17 +125,17 @@ class MessageServiceTest {
                 .data(List.of())
                 .build();
 
-        when(machineConfig.getWhitelist()).thenReturn(List.of(1, 2, 3));
+        whitelist(1, 2, 3);
         when(petApi.getPetById(1L)).thenReturn(new Pet());
-        when(messageRepository.findBySessionGuid(any()))
-                .thenReturn(List.of(existingMessage));
+        when(messageStore.findSequenceNumbersBySessionGuid(any()))
+                .thenReturn(List.of(new MessageSequenceDto(existingMessage.sequenceNumber())));
 
 
         boolean result = messageService.consumeMessage(testMessage);
 
 
         assertFalse(result);
-        verify(messageRepository, never()).save(any());
+        verify(messageStore, never()).insert(any(Message.class));
     }
 
     @Test
@@ -120,17 +149,46 @@ class MessageServiceTest {
                 .data(List.of())
                 .build();
 
-        when(machineConfig.getWhitelist()).thenReturn(List.of(1, 2, 3));
+        whitelist(1, 2, 3);
         when(petApi.getPetById(1L)).thenReturn(new Pet());
-        when(messageRepository.findBySessionGuid(any()))
-                .thenReturn(List.of(existingMessage));
+        when(messageStore.findSequenceNumbersBySessionGuid(any()))
+                .thenReturn(List.of(new MessageSequenceDto(existingMessage.sequenceNumber())));
 
 
         boolean result = messageService.consumeMessage(testMessage);
 
 
         assertTrue(result);
-        verify(messageRepository).save(testMessage);
+        verify(messageStore).insert(testMessage);
+    }
+
+    @Test
+    void consumeMessage_SameSessionTwice_LoadsSequencesOnceAndRejectsReplay() {
+
+        whitelist(1, 2, 3);
+        when(petApi.getPetById(1L)).thenReturn(new Pet());
+        when(messageStore.findSequenceNumbersBySessionGuid(any())).thenReturn(List.of());
+
+        assertTrue(messageService.consumeMessage(testMessage));
+        assertFalse(messageService.consumeMessage(testMessage));
+
+        verify(messageStore, times(1)).findSequenceNumbersBySessionGuid(testSessionGuid);
+        verify(messageStore, times(1)).insert(testMessage);
+        verify(petApi, times(1)).getPetById(1L);
+    }
+
+    @Test
+    void consumeMessage_UnknownMachine_CachedAsNotAuthorized() {
+
+        whitelist(1, 2, 3);
+        when(petApi.getPetById(1L)).thenThrow(HttpClientErrorException.create(
+                HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, new byte[0], null));
+
+        assertFalse(messageService.consumeMessage(testMessage));
+        assertFalse(messageService.consumeMessage(testMessage));
+
+        verify(petApi, times(1)).getPetById(1L);
+        verify(messageStore, never()).insert(any(Message.class));
     }
 
     @Test
@@ -140,13 +198,14 @@ class MessageServiceTest {
 
 
         assertFalse(result);
-        verify(messageRepository, never()).save(any());
+        verify(messageStore, never()).insert(any(Message.class));
     }
 
 
     @Test
     void consumeMessage_ExternalApiFailure_ReturnsFalse() {
 
+        whitelist(1, 2, 3);
         when(petApi.getPetById(1L)).thenThrow(new RuntimeException("API failure"));
 
 
@@ -154,16 +213,239 @@ class MessageServiceTest {
 
 
         assertFalse(result);
-        verify(messageRepository, never()).save(any());
+        verify(messageStore, never()).insert(any(Message.class));
+    }
+
+    @Test
+    void consumeMessage_LookupServiceUnavailable_ThrowsForRetry() {
+
+        whitelist(1, 2, 3);
+        when(petApi.getPetById(1L)).thenThrow(HttpServerErrorException.create(
+                HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", HttpHeaders.EMPTY, null, null));
+
+
+        assertThrows(HttpServerErrorException.class, () -> messageService.consumeMessage(testMessage));
+        verify(messageStore, never()).insert(any(Message.class));
+    }
+
+    @Test
+    void consumeMessages_MixedBatch_BulkInsertsOnlyAuthorizedUniqueMessages() {
+
+        Message unauthorized = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(testSessionGuid)
+                .sequenceNumber(2)
+                .machineId(9)
+                .data(List.of())
+                .build();
+        Message duplicateInBatch = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(testSessionGuid)
+                .sequenceNumber(1)
+                .machineId(1)
+                .data(List.of())
+                .build();
+        Message alreadyStored = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(testSessionGuid)
+                .sequenceNumber(3)
+                .machineId(1)
+                .data(List.of())
+                .build();
+
+        whitelist(1, 2, 3);
+        when(petApi.getPetById(anyLong())).thenReturn(new Pet());
+        when(messageStore.findSequenceNumbersBySessionGuid(testSessionGuid))
+                .thenReturn(List.of(new MessageSequenceDto(alreadyStored.sequenceNumber())));
+        when(messageStore.bulkInsert(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+
+        List<Message> result = messageService.consumeMessages(
+                List.of(testMessage, unauthorized, duplicateInBatch, alreadyStored));
+
+
+        assertEquals(List.of(testMessage), result);
+        verify(messageStore).findSequenceNumbersBySessionGuid(testSessionGuid);
+        verify(messageStore).bulkInsert(List.of(testMessage));
+        verify(aggregator).accept(testMessage);
+        verifyNoMoreInteractions(aggregator);
+    }
+
+    @Test
+    void consumeMessages_Batch_RecordsOneAuthorizationSample() {
+
+        Message second = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(testSessionGuid)
+                .sequenceNumber(2)
+                .machineId(1)
+                .data(List.of())
+                .build();
+
+        whitelist(1);
+        when(petApi.getPetById(1L)).thenReturn(new Pet());
+        when(messageStore.findSequenceNumbersBySessionGuid(testSessionGuid)).thenReturn(List.of());
+        when(messageStore.bulkInsert(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+
+        messageService.consumeMessages(List.of(testMessage, second));
+
+
+        assertEquals(1, registry.get("pipeline.stage").tag("stage", "authorization").timer().count());
+    }
+
+    @Test
+    void consumeMessages_ExternalApiFailure_SkipsOnlyFailingMessage() {
+
+        Message otherMachine = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(testSessionGuid)
+                .sequenceNumber(2)
+                .machineId(2)
+                .data(List.of())
+                .build();
+
+        whitelist(1, 2, 3);
+        when(petApi.getPetById(1L)).thenThrow(new RuntimeException("API failure"));
+        when(petApi.getPetById(2L)).thenReturn(new Pet());
+        when(messageStore.findSequenceNumbersBySessionGuid(any())).thenReturn(List.of());
+        when(messageStore.bulkInsert(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+
+        List<Message> result = messageService.consumeMessages(List.of(testMessage, otherMachine));
+
+
+        assertEquals(List.of(otherMachine), result);
+    }
+
+    @Test
+    void consumeMessages_LookupServiceUnavailable_ReportsTransientFailure() {
+
+        Message otherMachine = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(testSessionGuid)
+                .sequenceNumber(2)
+                .machineId(2)
+                .data(List.of())
+                .build();
+
+        whitelist(1, 2, 3);
+        when(petApi.getPetById(1L)).thenThrow(new ResourceAccessException("Connection refused"));
+        when(petApi.getPetById(2L)).thenReturn(new Pet());
+        when(messageStore.findSequenceNumbersBySessionGuid(any())).thenReturn(List.of());
+        when(messageStore.bulkInsert(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        List<Message> transientFailures = new ArrayList<>();
+
+
+        List<Message> result = messageService.consumeMessages(List.of(testMessage, otherMachine),
+                (message, e) -> transientFailures.add(message));
+
+
+        assertEquals(List.of(otherMachine), result);
+        assertEquals(List.of(testMessage), transientFailures);
+    }
+
+    @Test
+    void consumeMessages_MongoUnavailableAndSpoolFull_ThrowsWithoutMarkingBatchAsSeen() {
+
+        whitelist(1);
+        when(petApi.getPetById(1L)).thenReturn(new Pet());
+        when(messageStore.findSequenceNumbersBySessionGuid(testSessionGuid)).thenReturn(List.of());
+        when(messageStore.bulkInsert(any()))
+                .thenThrow(new DataAccessResourceFailureException("Mongo down"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(spool.offerAll(List.of(testMessage))).thenReturn(false);
+
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> messageService.consumeMessages(List.of(testMessage)));
+        List<Message> redelivered = messageService.consumeMessages(List.of(testMessage));
+
+
+        assertEquals(List.of(testMessage), redelivered);
+        verify(aggregator).accept(testMessage);
+    }
+
+    @Test
+    void consumeMessage_ConcurrentDuplicateRejectedByIndex_ReturnsFalse() {
+
+        whitelist(1, 2, 3);
+        when(petApi.getPetById(1L)).thenReturn(new Pet());
+        when(messageStore.findSequenceNumbersBySessionGuid(any())).thenReturn(List.of());
+        when(messageStore.insert(any(Message.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+
+        boolean result = messageService.consumeMessage(testMessage);
+
+
+        assertFalse(result);
     }
 
     @Test
     void saveMessage_DatabaseFailure_ThrowsException() {
 
-        when(messageRepository.save(any())).thenThrow(new RuntimeException("Database failure"));
+        when(messageStore.insert(any(Message.class))).thenThrow(new RuntimeException("Database failure"));
 
         assertThrows(RuntimeException.class, () -> messageService.saveMessage(testMessage));
     }
 
+    @Test
+    void saveMessage_MongoUnavailable_SpoolsMessage() {
+
+        when(messageStore.insert(any(Message.class))).thenThrow(new DataAccessResourceFailureException("Mongo down"));
+        when(spool.offer(testMessage)).thenReturn(true);
+
+        assertTrue(messageService.saveMessage(testMessage));
+        verify(spool).offer(testMessage);
+    }
+
+    @Test
+    void saveMessage_SpoolNotEmpty_SpoolsWithoutInsert() {
+
+        when(spool.isActive()).thenReturn(true);
+        when(spool.offer(testMessage)).thenReturn(true);
+
+        assertTrue(messageService.saveMessage(testMessage));
+        verify(messageStore, never()).insert(any(Message.class));
+    }
+
+    @Test
+    void getMessagesPage_FullPage_ReturnsCursorOfLastMessage() {
+
+        Message second = Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(testSessionGuid)
+                .sequenceNumber(2)
+                .machineId(1)
+                .data(List.of())
+                .build();
+        when(messageStore.findPageBySessionGuid(testSessionGuid, 0, 2)).thenReturn(List.of(testMessage, second));
+        when(messageStore.findPageBySessionGuid(testSessionGuid, 2, 2)).thenReturn(List.of());
+
+
+        MessagePageDto first = messageService.getMessagesPage(testSessionGuid, 0, 2);
+        MessagePageDto last = messageService.getMessagesPage(testSessionGuid, first.nextAfter(), 2);
+
+
+        assertEquals(List.of(testMessage, second), first.messages());
+        assertEquals(2, first.nextAfter());
+        assertTrue(last.messages().isEmpty());
+        assertNull(last.nextAfter());
+    }
+
+    @Test
+    void unpersist_PersistedMessage_DeletesItAndRetractsItsSummaries() {
 
-}
\ No newline at end of file
+        messageService.unpersist(List.of(testMessage));
+
+        verify(messageStore).deleteAll(List.of(testMessage));
+        verify(aggregator).retract(testMessage);
+    }
+
+    private void whitelist(Integer... machineIds) {
+        List<Integer> whitelisted = List.of(machineIds);
+        when(machineWhitelist.contains(anyInt()))
+                .thenAnswer(invocation -> whitelisted.contains(invocation.<Integer>getArgument(0)));
+    }
+}
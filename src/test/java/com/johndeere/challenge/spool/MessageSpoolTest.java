@@ -0,0 +1,137 @@
+package com.johndeere.challenge.spool;
+
+import com.johndeere.challenge.config.SpoolConfig;
+import com.johndeere.challenge.kafka.RetryRouter;
+import com.johndeere.challenge.metrics.PipelineMetrics;
+import com.johndeere.challenge.model.Message;
+import com.johndeere.challenge.repository.MessageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.NetworkException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageSpoolTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private MessageStore messageStore;
+
+    @Mock
+    private RetryRouter retryRouter;
+
+    private MessageSpool spool;
+    private List<Message> messages;
+
+    @BeforeEach
+    void setUp() {
+        SpoolConfig config = new SpoolConfig();
+        config.setDirectory(directory);
+        config.setSegmentSize(DataSize.ofKilobytes(64));
+        config.setDrainBatchSize(2);
+        spool = new MessageSpool(config, messageStore, retryRouter, new PipelineMetrics(new SimpleMeterRegistry()));
+        spool.open();
+
+        UUID sessionGuid = UUID.randomUUID();
+        messages = List.of(message(sessionGuid, 1), message(sessionGuid, 2), message(sessionGuid, 3));
+        messages.forEach(message -> assertTrue(spool.offer(message)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        spool.close();
+    }
+
+    @Test
+    void drain_MongoAvailable_InsertsBatchesInOrderUntilEmpty() {
+        when(messageStore.bulkInsert(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int drained = spool.drain();
+
+        assertEquals(3, drained);
+        assertFalse(spool.isActive());
+        verify(messageStore).bulkInsert(eq(messages.subList(0, 2)), any());
+        verify(messageStore).bulkInsert(eq(messages.subList(2, 3)), any());
+    }
+
+    @Test
+    void drain_MongoUnavailable_KeepsBatch() {
+        when(messageStore.bulkInsert(any(), any())).thenThrow(new DataAccessResourceFailureException("Mongo down"));
+
+        int drained = spool.drain();
+
+        assertEquals(0, drained);
+        assertTrue(spool.isActive());
+        verify(messageStore).bulkInsert(eq(messages.subList(0, 2)), any());
+    }
+
+    @Test
+    void drain_RecordRejectedByMongo_MovesItToDeadLetterTopicAndCommitsBatch() {
+        Message rejected = messages.get(1);
+        when(messageStore.bulkInsert(any(), any())).thenAnswer(invocation -> {
+            List<Message> batch = invocation.getArgument(0);
+            BiConsumer<Message, Exception> rejections = invocation.getArgument(1);
+            if (batch.contains(rejected)) {
+                rejections.accept(rejected, new DataIntegrityViolationException("Document failed validation"));
+            }
+            return batch.stream().filter(message -> message != rejected).toList();
+        });
+        when(retryRouter.route(eq(rejected), eq(0), any(DataIntegrityViolationException.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        int drained = spool.drain();
+
+        assertEquals(3, drained);
+        assertFalse(spool.isActive());
+        verify(retryRouter).route(eq(rejected), eq(0), any());
+        verifyNoMoreInteractions(retryRouter);
+    }
+
+    @Test
+    void drain_DeadLetterTopicUnavailable_KeepsBatch() {
+        when(messageStore.bulkInsert(any(), any())).thenAnswer(invocation -> {
+            List<Message> batch = invocation.getArgument(0);
+            BiConsumer<Message, Exception> rejections = invocation.getArgument(1);
+            rejections.accept(batch.getFirst(), new DataIntegrityViolationException("Document failed validation"));
+            return batch.subList(1, batch.size());
+        });
+        when(retryRouter.route(any(), eq(0), any()))
+                .thenReturn(CompletableFuture.failedFuture(new NetworkException("Broker unavailable")));
+
+        int drained = spool.drain();
+
+        assertEquals(0, drained);
+        assertTrue(spool.isActive());
+    }
+
+    private static Message message(UUID sessionGuid, int sequenceNumber) {
+        return Message.builder()
+                .id(UUID.randomUUID())
+                .sessionGuid(sessionGuid)
+                .sequenceNumber(sequenceNumber)
+                .machineId(1)
+                .data(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.johndeere.challenge.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentLogTest {
+
+    // Room for four 8-byte records per segment
+    private static final int SEGMENT_SIZE = 4 * (SegmentLog.HEADER + 8);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void read_RecordsAcrossSegments_ReturnsAppendOrderAndDeletesDrainedSegments() throws IOException {
+        SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE, 4, false);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(log.append(record(i)));
+        }
+        assertEquals(3, segmentFiles());
+
+        SegmentLog.Batch first = log.read(6);
+        log.commit(first);
+        SegmentLog.Batch second = log.read(100);
+        log.commit(second);
+
+        assertEquals(List.of("record-0", "record-1", "record-2", "record-3", "record-4", "record-5"), strings(first));
+        assertEquals(List.of("record-6", "record-7", "record-8", "record-9"), strings(second));
+        assertTrue(log.isEmpty());
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void open_AfterRestart_ResumesFromCheckpoint() {
+        SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE, 4, false);
+        for (int i = 0; i < 6; i++) {
+            log.append(record(i));
+        }
+        log.commit(log.read(5));
+        log.close();
+
+        SegmentLog reopened = new SegmentLog(directory, SEGMENT_SIZE, 4, false);
+        reopened.append(record(6));
+
+        assertEquals(2, reopened.pending());
+        assertEquals(List.of("record-5", "record-6"), strings(reopened.read(100)));
+    }
+
+    @Test
+    void append_AllSegmentsFull_RefusesRecord() {
+        SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE, 2, false);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(log.append(record(i)));
+        }
+
+        assertFalse(log.append(record(8)));
+
+        log.commit(log.read(4));
+        assertTrue(log.append(record(8)));
+    }
+
+    @Test
+    void appendAll_RecordsDoNotFit_AppendsNone() {
+        SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE, 2, false);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(log.append(record(i)));
+        }
+
+        assertFalse(log.appendAll(List.of(record(6), record(7), record(8))));
+        assertTrue(log.appendAll(List.of(record(6), record(7))));
+
+        assertEquals(8, log.pending());
+        assertEquals("record-7", strings(log.read(100)).getLast());
+    }
+
+    @Test
+    void read_UncommittedBatch_IsReadAgain() {
+        SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE, 4, false);
+        log.append(record(0));
+        log.append(record(1));
+
+        log.read(2);
+
+        assertEquals(List.of("record-0", "record-1"), strings(log.read(2)));
+        assertEquals(2, log.pending());
+    }
+
+    private static byte[] record(int i) {
+        return ("record-" + i).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static List<String> strings(SegmentLog.Batch batch) {
+        return batch.records().stream()
+                .map(record -> new String(record, StandardCharsets.US_ASCII))
+                .toList();
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+}